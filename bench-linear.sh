@@ -0,0 +1,11 @@
+#!/bin/bash
+
+set -e
+
+SCRIPT_DIR=$( cd -- "$( dirname -- "${BASH_SOURCE[0]}" )" &> /dev/null && pwd )
+cd "$SCRIPT_DIR"
+
+LIBS="lib/clojure-1.12.0.jar:lib/core.specs.alpha-0.4.74.jar:lib/spec.alpha-0.5.238.jar:lib/hamcrest-core-1.3.jar:lib/junit-4.13.2.jar:lib/jmh-core-1.37.jar:lib/jmh-generator-annprocess-1.37.jar:lib/jopt-simple-5.0.4.jar:lib/commons-math3-3.6.1.jar"
+
+javac -cp "test:bench:src:$LIBS" -processor org.openjdk.jmh.generators.BenchmarkProcessor --add-modules jdk.incubator.vector -d "out-bench" bench/linear/*.java test/linear/SimdKernels.java
+java -cp "out-bench:src:$LIBS" linear.LinearBenchmarks "$@"
@@ -0,0 +1,98 @@
+package linear;
+
+import base.Annotated;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.Random;
+
+public final class BenchmarkData {
+    private static final long SEED = 8682522807148012L;
+
+    private BenchmarkData() {
+    }
+
+    private static double generateNonZeroDouble(final Random rng) {
+        double value;
+        do {
+            value = rng.nextLong(-10_000, 10_000) / 100.0;
+        } while (value == 0);
+        return value;
+    }
+
+    private static Tensor<Double> generate(final Random rng, final int... shape) {
+        return Tensor.generate(() -> generateNonZeroDouble(rng), shape);
+    }
+
+    private static Object[] toClojure(final List<Tensor<Double>> tensors) {
+        return tensors.stream().map(Tensor::toClojure).map(Annotated::value).toArray();
+    }
+
+    @State(Scope.Benchmark)
+    public static class Vectors {
+        @Param({"1000", "100000", "1000000"})
+        public int length;
+
+        public List<Tensor<Double>> pair;
+        public List<Tensor<Double>> scaled;
+        public Object[] clojurePair;
+        public Object[] clojureScaled;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            final Random rng = new Random(SEED);
+            pair = List.of(generate(rng, length), generate(rng, length));
+            scaled = List.of(pair.getFirst(), generate(rng), generate(rng));
+            clojurePair = toClojure(pair);
+            clojureScaled = toClojure(scaled);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Matrices {
+        @Param({"64", "512", "2048"})
+        public int size;
+
+        public List<Tensor<Double>> pair;
+        public List<Tensor<Double>> scaled;
+        public List<Tensor<Double>> single;
+        public List<Tensor<Double>> withVector;
+        public Object[] clojurePair;
+        public Object[] clojureScaled;
+        public Object[] clojureSingle;
+        public Object[] clojureWithVector;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            final Random rng = new Random(SEED);
+            pair = List.of(generate(rng, size, size), generate(rng, size, size));
+            scaled = List.of(pair.getFirst(), generate(rng), generate(rng));
+            single = List.of(generate(rng, size, size / 2));
+            withVector = List.of(pair.getFirst(), generate(rng, size));
+            clojurePair = toClojure(pair);
+            clojureScaled = toClojure(scaled);
+            clojureSingle = toClojure(single);
+            clojureWithVector = toClojure(withVector);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Products {
+        @Param({"64", "256", "2048"})
+        public int size;
+
+        public List<Tensor<Double>> pair;
+        public Object[] clojurePair;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            final Random rng = new Random(SEED);
+            pair = List.of(generate(rng, size, size), generate(rng, size, size));
+            clojurePair = toClojure(pair);
+        }
+    }
+}
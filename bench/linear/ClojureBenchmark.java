@@ -0,0 +1,128 @@
+package linear;
+
+import base.ClojureNamespace;
+import clojure.lang.IFn;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+@State(Scope.Benchmark)
+public class ClojureBenchmark {
+    private IFn vAdd;
+    private IFn vSubtract;
+    private IFn vMultiply;
+    private IFn vDivide;
+    private IFn dot;
+    private IFn vScale;
+    private IFn mAdd;
+    private IFn mSubtract;
+    private IFn mMultiply;
+    private IFn mDivide;
+    private IFn mScale;
+    private IFn mTimesV;
+    private IFn mTimesM;
+    private IFn transpose;
+
+    @Setup
+    public void setup() {
+        final ClojureNamespace linearNs = ClojureNamespace.load("linear");
+        vAdd = linearNs.var("v+");
+        vSubtract = linearNs.var("v-");
+        vMultiply = linearNs.var("v*");
+        vDivide = linearNs.var("vd");
+        dot = linearNs.var("dot");
+        vScale = linearNs.var("v*s");
+        mAdd = linearNs.var("m+");
+        mSubtract = linearNs.var("m-");
+        mMultiply = linearNs.var("m*");
+        mDivide = linearNs.var("md");
+        mScale = linearNs.var("m*s");
+        mTimesV = linearNs.var("m*v");
+        mTimesM = linearNs.var("m*m");
+        transpose = linearNs.var("transpose");
+    }
+
+    @Benchmark
+    public Object vAdd(final BenchmarkData.Vectors data) {
+        return vAdd.invoke(data.clojurePair[0], data.clojurePair[1]);
+    }
+
+    @Benchmark
+    public Object vSubtract(final BenchmarkData.Vectors data) {
+        return vSubtract.invoke(data.clojurePair[0], data.clojurePair[1]);
+    }
+
+    @Benchmark
+    public Object vMultiply(final BenchmarkData.Vectors data) {
+        return vMultiply.invoke(data.clojurePair[0], data.clojurePair[1]);
+    }
+
+    @Benchmark
+    public Object vDivide(final BenchmarkData.Vectors data) {
+        return vDivide.invoke(data.clojurePair[0], data.clojurePair[1]);
+    }
+
+    @Benchmark
+    public Object dot(final BenchmarkData.Vectors data) {
+        return dot.invoke(data.clojurePair[0], data.clojurePair[1]);
+    }
+
+    @Benchmark
+    public Object vScale(final BenchmarkData.Vectors data) {
+        return vScale.invoke(data.clojureScaled[0], data.clojureScaled[1], data.clojureScaled[2]);
+    }
+
+    @Benchmark
+    public Object mAdd(final BenchmarkData.Matrices data) {
+        return mAdd.invoke(data.clojurePair[0], data.clojurePair[1]);
+    }
+
+    @Benchmark
+    public Object mSubtract(final BenchmarkData.Matrices data) {
+        return mSubtract.invoke(data.clojurePair[0], data.clojurePair[1]);
+    }
+
+    @Benchmark
+    public Object mMultiply(final BenchmarkData.Matrices data) {
+        return mMultiply.invoke(data.clojurePair[0], data.clojurePair[1]);
+    }
+
+    @Benchmark
+    public Object mDivide(final BenchmarkData.Matrices data) {
+        return mDivide.invoke(data.clojurePair[0], data.clojurePair[1]);
+    }
+
+    @Benchmark
+    public Object mScale(final BenchmarkData.Matrices data) {
+        return mScale.invoke(data.clojureScaled[0], data.clojureScaled[1], data.clojureScaled[2]);
+    }
+
+    @Benchmark
+    public Object mTimesV(final BenchmarkData.Matrices data) {
+        return mTimesV.invoke(data.clojureWithVector[0], data.clojureWithVector[1]);
+    }
+
+    @Benchmark
+    public Object transpose(final BenchmarkData.Matrices data) {
+        return transpose.invoke(data.clojureSingle[0]);
+    }
+
+    @Benchmark
+    public Object mTimesM(final BenchmarkData.Products data) {
+        return mTimesM.invoke(data.clojurePair[0], data.clojurePair[1]);
+    }
+}
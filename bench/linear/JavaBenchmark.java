@@ -0,0 +1,98 @@
+package linear;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx8g", "--add-modules=jdk.incubator.vector"})
+public class JavaBenchmark {
+    @Benchmark
+    public Object vAdd(final BenchmarkData.Vectors data) {
+        return Solution.vectorCompWise(data.pair, DoubleOperatorOverload.ADD);
+    }
+
+    @Benchmark
+    public Object vSubtract(final BenchmarkData.Vectors data) {
+        return Solution.vectorCompWise(data.pair, DoubleOperatorOverload.SUBTRACT);
+    }
+
+    @Benchmark
+    public Object vMultiply(final BenchmarkData.Vectors data) {
+        return Solution.vectorCompWise(data.pair, DoubleOperatorOverload.MULTIPLY);
+    }
+
+    @Benchmark
+    public Object vDivide(final BenchmarkData.Vectors data) {
+        return Solution.vectorCompWise(data.pair, DoubleOperatorOverload.DIVIDE);
+    }
+
+    @Benchmark
+    public Object dot(final BenchmarkData.Vectors data) {
+        return Solution.inner(data.pair, DoubleOperatorOverload.ADD, DoubleOperatorOverload.MULTIPLY);
+    }
+
+    @Benchmark
+    public Object vectorizedDot(final BenchmarkData.Vectors data) {
+        return Solution.vectorizedInner(data.pair);
+    }
+
+    @Benchmark
+    public Object vScale(final BenchmarkData.Vectors data) {
+        return Solution.vectorScale(data.scaled, DoubleOperatorOverload.MULTIPLY);
+    }
+
+    @Benchmark
+    public Object mAdd(final BenchmarkData.Matrices data) {
+        return Solution.matrixCompWise(data.pair, DoubleOperatorOverload.ADD);
+    }
+
+    @Benchmark
+    public Object mSubtract(final BenchmarkData.Matrices data) {
+        return Solution.matrixCompWise(data.pair, DoubleOperatorOverload.SUBTRACT);
+    }
+
+    @Benchmark
+    public Object mMultiply(final BenchmarkData.Matrices data) {
+        return Solution.matrixCompWise(data.pair, DoubleOperatorOverload.MULTIPLY);
+    }
+
+    @Benchmark
+    public Object mDivide(final BenchmarkData.Matrices data) {
+        return Solution.matrixCompWise(data.pair, DoubleOperatorOverload.DIVIDE);
+    }
+
+    @Benchmark
+    public Object mScale(final BenchmarkData.Matrices data) {
+        return Solution.matrixScale(data.scaled, DoubleOperatorOverload.MULTIPLY);
+    }
+
+    @Benchmark
+    public Object mTimesV(final BenchmarkData.Matrices data) {
+        return Solution.transposeMultiplyV(data.withVector, DoubleOperatorOverload.ADD, DoubleOperatorOverload.MULTIPLY);
+    }
+
+    @Benchmark
+    public Object vectorizedMTimesV(final BenchmarkData.Matrices data) {
+        return Solution.vectorizedTransposeMultiplyV(data.withVector);
+    }
+
+    @Benchmark
+    public Object transpose(final BenchmarkData.Matrices data) {
+        return Solution.transpose(data.single);
+    }
+
+    @Benchmark
+    public Object mTimesM(final BenchmarkData.Products data) {
+        return Solution.compose(data.pair, DoubleOperatorOverload.ADD, DoubleOperatorOverload.MULTIPLY);
+    }
+}
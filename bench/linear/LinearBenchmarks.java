@@ -0,0 +1,93 @@
+package linear;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+public final class LinearBenchmarks {
+    private LinearBenchmarks() {
+    }
+
+    public static void main(final String[] args) throws RunnerException, CommandLineOptionException {
+        final CommandLineOptions commandLine = new CommandLineOptions(args);
+        final ChainedOptionsBuilder options = new OptionsBuilder()
+                .parent(commandLine)
+                .addProfiler(GCProfiler.class);
+        if (commandLine.getIncludes().isEmpty()) {
+            options.include(JavaBenchmark.class.getSimpleName()).include(ClojureBenchmark.class.getSimpleName());
+        }
+        final Collection<RunResult> results = new Runner(options.build()).run();
+        report(results);
+        if (results.stream().anyMatch(r -> r.getParams().getBenchmark().contains(SummationBenchmark.class.getSimpleName()))) {
+            SummationBenchmark.reportAccuracy();
+        }
+    }
+
+    private record Key(String operation, String params) implements Comparable<Key> {
+        @Override
+        public int compareTo(final Key o) {
+            final int cmp = operation.compareTo(o.operation);
+            return cmp != 0 ? cmp : params.compareTo(o.params);
+        }
+    }
+
+    private static Key key(final RunResult result) {
+        final String benchmark = result.getParams().getBenchmark();
+        final String params = result.getParams().getParamsKeys().stream()
+                .map(k -> k + "=" + result.getParams().getParam(k))
+                .collect(Collectors.joining(","));
+        return new Key(benchmark.substring(benchmark.lastIndexOf('.') + 1), params);
+    }
+
+    private static double allocated(final RunResult result) {
+        return result.getSecondaryResults().entrySet().stream()
+                .filter(e -> e.getKey().endsWith("gc.alloc.rate.norm"))
+                .mapToDouble(e -> e.getValue().getScore())
+                .findFirst()
+                .orElse(Double.NaN);
+    }
+
+    private static void report(final Collection<RunResult> results) {
+        final Map<Key, RunResult> java = new TreeMap<>();
+        final Map<Key, RunResult> clojure = new TreeMap<>();
+        for (final RunResult result : results) {
+            final String benchmark = result.getParams().getBenchmark();
+            if (benchmark.contains(JavaBenchmark.class.getSimpleName())) {
+                java.put(key(result), result);
+            } else if (benchmark.contains(ClojureBenchmark.class.getSimpleName())) {
+                clojure.put(key(result), result);
+            }
+        }
+
+        System.out.println();
+        System.out.printf("%-12s %-16s %14s %14s %10s %14s %14s%n", "Operation", "Params", "Java ops/s", "Clojure ops/s", "Ratio", "Java B/op", "Clojure B/op");
+        for (final Map.Entry<Key, RunResult> entry : java.entrySet()) {
+            final RunResult clj = clojure.get(entry.getKey());
+            if (clj == null) {
+                continue;
+            }
+            final double javaScore = entry.getValue().getPrimaryResult().getScore();
+            final double clojureScore = clj.getPrimaryResult().getScore();
+            System.out.printf(
+                    "%-12s %-16s %14.3f %14.3f %10.2f %14.0f %14.0f%n",
+                    entry.getKey().operation(),
+                    entry.getKey().params(),
+                    javaScore,
+                    clojureScore,
+                    javaScore / clojureScore,
+                    allocated(entry.getValue()),
+                    allocated(clj)
+            );
+        }
+    }
+}
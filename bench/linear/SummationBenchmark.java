@@ -0,0 +1,64 @@
+package linear;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+@State(Scope.Benchmark)
+public class SummationBenchmark {
+    private static final long SEED = 5412377905012783L;
+
+    @Param({"NAIVE", "PAIRWISE", "KAHAN", "EXACT"})
+    public Summation summation;
+
+    @Param({"1000", "1000000"})
+    public int length;
+
+    private double[] values;
+
+    static double[] generate(final int length) {
+        final Random rng = new Random(SEED);
+        return rng.doubles(length).map(x -> (x - 0.5) * Math.pow(10, rng.nextInt(16))).toArray();
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        values = generate(length);
+    }
+
+    @Benchmark
+    public double sum() {
+        return summation.sum(values);
+    }
+
+    public static void reportAccuracy() {
+        System.out.println();
+        System.out.printf("%-10s %10s %14s %14s%n", "Summation", "Length", "Error (ulps)", "Rel. error");
+        for (final int length : new int[]{1000, 1000000}) {
+            final double[] values = generate(length);
+            final double exact = Summation.EXACT.sum(values);
+            for (final Summation summation : Arrays.copyOf(Summation.values(), Summation.values().length - 1)) {
+                final double error = Math.abs(summation.sum(values) - exact);
+                System.out.printf("%-10s %10d %14.1f %14.3e%n", summation, length, error / Math.ulp(exact), error / Math.abs(exact));
+            }
+        }
+    }
+}
@@ -1,14 +1,208 @@
 (ns linear)
 
+    (def ^:dynamic *validate* true)
+
+    (def validated (java.util.concurrent.atomic.AtomicReferenceArray. 1024))
+
+    (defn validated-slot [v]
+        (bit-and (System/identityHashCode v) 1023))
+
+    (defn validated? [v]
+        (let [^java.lang.ref.Reference ref (.get ^java.util.concurrent.atomic.AtomicReferenceArray validated (validated-slot v))]
+            (and (some? ref) (identical? v (.get ref)))))
+
+    (defn remember-valid [v]
+        (.set ^java.util.concurrent.atomic.AtomicReferenceArray validated (validated-slot v) (java.lang.ref.WeakReference. v))
+        v)
+
+    (defn numeric-vector? [v]
+        (and (vector? v)
+             (or (validated? v)
+                 (and (reduce (fn [_ x] (or (number? x) (reduced false))) true v)
+                      (some? (remember-valid v))))))
+
     (defn check-sizes [vecs]
         (every? #(== (count (first vecs)) (count %)) vecs))
 
     (defn check-vecs [vecs]
-        (and (coll? vecs) (every? vector? vecs) (every? #(every? number? %) vecs) (check-sizes vecs)))
+        (or (not *validate*)
+            (and (coll? vecs) (every? #(and (numeric-vector? %) (== (count (first vecs)) (count %))) vecs))))
+
+    (defn double-divide ^double [^double a ^double b]
+        (cond
+            (Double/isNaN a) a
+            (Double/isNaN b) b
+            (zero? b) (throw (ArithmeticException. "Divide by zero"))
+            :else (/ a b)))
+
+    (def double-ops
+        {+ [(fn ^double [^double a] a) (fn ^double [^double a ^double b] (+ a b))]
+         - [(fn ^double [^double a] (- a)) (fn ^double [^double a ^double b] (- a b))]
+         * [(fn ^double [^double a] a) (fn ^double [^double a ^double b] (* a b))]
+         / [(fn ^double [^double a] (double-divide 1.0 a)) double-divide]})
+
+    (defn double-fill [^doubles acc ^clojure.lang.Indexed v from]
+        (loop [i 0]
+            (if (< i (alength acc))
+                (let [x (.nth v (+ from i))]
+                    (when (instance? Double x)
+                        (aset acc i (.doubleValue ^Double x))
+                        (recur (unchecked-inc i))))
+                true)))
+
+    (defn double-combine [^doubles acc ^clojure.lang.IFn$DDD binary ^clojure.lang.Indexed v from]
+        (loop [i 0]
+            (if (< i (alength acc))
+                (let [x (.nth v (+ from i))]
+                    (when (instance? Double x)
+                        (aset acc i (.invokePrim binary (aget acc i) (.doubleValue ^Double x)))
+                        (recur (unchecked-inc i))))
+                true)))
+
+    (defn double-map [^doubles acc ^clojure.lang.IFn$DD unary]
+        (dotimes [i (alength acc)]
+            (aset acc i (.invokePrim unary (aget acc i))))
+        acc)
+
+    (defn double-fold [unary binary vecs from to]
+        (let [acc (double-array (- to from))]
+            (when (and (pos? (alength acc))
+                       (double-fill acc (first vecs) from)
+                       (every? #(double-combine acc binary % from) (rest vecs)))
+                (if (empty? (rest vecs)) (double-map acc unary) acc))))
+
+    (def ^:dynamic *summation* :naive)
+
+    (def pairwise-block 128)
+
+    (def summation-chunk 8192)
+
+    (defn naive-sum ^double [^doubles xs ^long from ^long to]
+        (loop [i (inc from) acc (aget xs from)]
+            (if (< i to)
+                (recur (unchecked-inc i) (+ acc (aget xs i)))
+                acc)))
+
+    (defn pairwise-sum ^double [^doubles xs ^long from ^long to]
+        (if (<= (- to from) pairwise-block)
+            (naive-sum xs from to)
+            (let [mid (+ from (* pairwise-block (quot (+ (quot (- to from) 2) pairwise-block -1) pairwise-block)))]
+                (+ (pairwise-sum xs from mid) (pairwise-sum xs mid to)))))
+
+    (defn kahan-sum ^double [^doubles xs]
+        (loop [i 1 acc (aget xs 0) compensation 0.0]
+            (if (< i (alength xs))
+                (let [x (aget xs i)
+                      next (+ acc x)]
+                    (recur (unchecked-inc i)
+                           next
+                           (+ compensation (if (>= (Math/abs acc) (Math/abs x)) (+ (- acc next) x) (+ (- x next) acc)))))
+                (+ acc compensation))))
+
+    (defn chunked-sum ^double [^doubles xs]
+        (let [n (alength xs)
+              partials (double-array (quot (+ n summation-chunk -1) summation-chunk))]
+            (dotimes [k (alength partials)]
+                (aset partials k (naive-sum xs (* k summation-chunk) (min n (* (inc k) summation-chunk)))))
+            (naive-sum partials 0 (alength partials))))
+
+    (defn double-sum ^double [^doubles xs]
+        (case *summation*
+            :naive (naive-sum xs 0 (alength xs))
+            :pairwise (pairwise-sum xs 0 (alength xs))
+            :kahan (kahan-sum xs)
+            :chunked (chunked-sum xs)))
+
+    (defn double-dot [unary binary vecs from to]
+        (when-let [acc (double-fold unary binary vecs from to)]
+            (double-sum acc)))
+
+    (def ^:dynamic *parallel-threshold* 65536)
+
+    (def parallel-chunk 8192)
+
+    (defn parallel? [n]
+        (and (>= n *parallel-threshold*) (> (.availableProcessors (Runtime/getRuntime)) 1)))
+
+    (defn parallel-parts [n chunk f]
+        (let [task (bound-fn* (fn [from] (try (f from (min n (+ from chunk))) (catch Throwable t t))))
+              tasks (mapv (fn [from] #(task from)) (range 0 n chunk))
+              parts (mapv #(.get ^java.util.concurrent.Future %)
+                          (.invokeAll (java.util.concurrent.ForkJoinPool/commonPool) ^java.util.Collection tasks))]
+            (when-let [error (some #(when (instance? Throwable %) %) parts)]
+                (throw error))
+            parts))
+
+    (defn concat-parts [parts]
+        (persistent! (reduce #(reduce conj! %1 %2) (transient []) parts)))
+
+    (defn long-gcd ^long [^long u ^long v]
+        (if (zero? v) u (recur v (rem u v))))
+
+    (defn ratio-value [^long n ^long d ^long kind]
+        (cond
+            (== kind 0) n
+            (== kind 1) (clojure.lang.BigInt/fromLong n)
+            :else (clojure.lang.Ratio. (biginteger n) (biginteger d))))
+
+    ; Replays clojure.core// on Long operands with the numerator and denominator kept in longs.
+    ; kind tracks the type Clojure would produce: 0 Long, 1 BigInt, 2 Ratio.
+    ; Returns nil for non-Long operands; a step that does not fit in longs continues through clojure.core//.
+    (defn long-quotient [vecs i]
+        (let [single (nil? (next vecs))
+              x (if single 1 (.nth ^clojure.lang.Indexed (first vecs) i))]
+            (when (instance? Long x)
+                (loop [vs (if single vecs (next vecs)) n (long x) d 1 kind 0]
+                    (if (nil? vs)
+                        (ratio-value n d kind)
+                        (let [y (.nth ^clojure.lang.Indexed (first vs) i)]
+                            (cond
+                                (not (instance? Long y)) nil
+                                (or (zero? (long y)) (== (long y) Long/MIN_VALUE) (== n Long/MIN_VALUE))
+                                (reduce / (ratio-value n d kind) (map #(.nth ^clojure.lang.Indexed % i) vs))
+                                (== kind 0) (let [y (long y)
+                                                  g (long-gcd n y)
+                                                  q (quot n g)
+                                                  r (quot y g)]
+                                                (cond
+                                                    (== r 1) (recur (next vs) q 1 0)
+                                                    (neg? r) (recur (next vs) (- q) (- r) 2)
+                                                    :else (recur (next vs) q r 2)))
+                                :else (let [y (long y)
+                                            p (unchecked-multiply y d)]
+                                          (if (or (not= (Math/multiplyHigh y d) (bit-shift-right p 63)) (== p Long/MIN_VALUE))
+                                              (reduce / (ratio-value n d kind) (map #(.nth ^clojure.lang.Indexed % i) vs))
+                                              (let [g (long-gcd (Math/abs n) (Math/abs p))
+                                                    q (quot n g)
+                                                    r (quot p g)]
+                                                  (cond
+                                                      (== r 1) (recur (next vs) q 1 1)
+                                                      (== r -1) (recur (next vs) (- q) 1 1)
+                                                      (neg? r) (recur (next vs) (- q) (- r) 2)
+                                                      :else (recur (next vs) q r 2))))))))))))
+
+    (defn ratio-fold [vecs from to]
+        (loop [i from acc (transient [])]
+            (if (< i to)
+                (let [q (long-quotient vecs i)]
+                    (when q (recur (inc i) (conj! acc q))))
+                (persistent! acc))))
+
+    (defn chunk-mapv [f unary binary vecs from to]
+        (or (and unary (double-fold unary binary vecs from to))
+            (and (identical? f /) (ratio-fold vecs from to))
+            (apply mapv f (map #(subvec % from to) vecs))))
 
     (defn apply-mapv [f vecs]
         {:pre [(check-vecs vecs)]}
-        (apply mapv f vecs))
+        (let [[unary binary] (double-ops f)
+              n (count (first vecs))
+              result (if (parallel? n)
+                         (concat-parts (parallel-parts n parallel-chunk #(chunk-mapv f unary binary vecs %1 %2)))
+                         (if-let [acc (and unary (double-fold unary binary vecs 0 n))]
+                             (vec acc)
+                             (or (and (identical? f /) (ratio-fold vecs 0 n)) (apply mapv f vecs))))]
+            (if unary (remember-valid result) result)))
     
     (defn v+ [& vecs] 
         (apply-mapv + vecs))
@@ -25,18 +219,32 @@
     (defn dot [& vecs]
       (cond
         (empty? vecs) 0
-        :else (apply + (apply-mapv * vecs))))
+        :else (let [[unary binary] (double-ops *)
+                    sum (when (check-vecs vecs)
+                            (let [n (count (first vecs))]
+                                ; Only :chunked fixes the association independently of the core count.
+                                (if (and (= *summation* :chunked) (parallel? n))
+                                    (let [partials (parallel-parts n summation-chunk #(double-dot unary binary vecs %1 %2))]
+                                        (when (every? some? partials) (naive-sum (double-array partials) 0 (count partials))))
+                                    (double-dot unary binary vecs 0 n))))]
+                  (if sum sum (apply + (apply-mapv * vecs))))))
     
     (defn v*scal [v scal]
-        {:pre [(and (check-vecs [v]) (every? number? scal))]}
+        {:pre [(or (not *validate*) (and (check-vecs [v]) (every? number? scal)))]}
         (mapv #(* (apply * scal) %) v))
     
     (defn v*s [v & s]
         (v*scal v s))
     
     (defn m [f ms]
-        {:pre [(and (every? vector? ms) (check-sizes ms))]}
-        (apply mapv #(apply-mapv f %&) ms))
+        {:pre [(or (not *validate*) (and (every? vector? ms) (check-sizes ms)))]}
+        (let [rows (count (first ms))
+              row (first (first ms))
+              cols (if (vector? row) (count row) 0)
+              row-op (fn [from to] (apply mapv #(apply-mapv f %&) (map #(subvec % from to) ms)))]
+            (if (and (> rows 1) (parallel? (* rows cols)))
+                (concat-parts (parallel-parts rows (max 1 (quot parallel-chunk (max cols 1))) row-op))
+                (apply mapv #(apply-mapv f %&) ms))))
     
     (defn m+ [& ms]
         (m + ms))
@@ -51,17 +259,416 @@
         (m / ms))
     
     (defn m*s [m & s]
-        {:pre [(vector? m)]}
+        {:pre [(or (not *validate*) (vector? m))]}
         (mapv #(v*scal % s) m))
     
+    (def transpose-tile 32)
+
+    (defn transpose-columns [m from to]
+        (let [^objects out (object-array (- to from))]
+            (dotimes [k (alength out)]
+                (aset out k (transient [])))
+            (doseq [row m]
+                (dotimes [k (alength out)]
+                    (aset out k (conj! (aget out k) (nth row (+ from k))))))
+            (mapv persistent! out)))
+
     (defn transpose [m]
-        (apply-mapv vector m))
+        {:pre [(check-vecs m)]}
+        (let [cols (count (first m))]
+            (concat-parts
+                (if (parallel? (* (count m) cols))
+                    (parallel-parts cols transpose-tile #(transpose-columns m %1 %2))
+                    (mapv #(transpose-columns m % (min cols (+ % transpose-tile))) (range 0 cols transpose-tile))))))
+
+    (defn index-vector [n f]
+        (proxy [clojure.lang.APersistentVector] []
+            (count [] n)
+            (nth
+                ([i]
+                 (if (and (<= 0 i) (< i n)) (f i) (throw (IndexOutOfBoundsException. (str i)))))
+                ([i not-found]
+                 (if (and (<= 0 i) (< i n)) (f i) not-found)))
+            (cons [x] (conj (vec this) x))
+            (assocN [i x] (assoc (vec this) i x))
+            (pop [] (pop (vec this)))
+            (empty [] [])))
+
+    (defn transposed [m]
+        {:pre [(check-vecs m)]}
+        (let [rows (count m)]
+            (index-vector (count (first m)) (fn [j] (index-vector rows #(nth (nth m %) j))))))
     
     (defn m*v [m v]
         (mapv #(dot % v) m))
     
+    (def transpose-cache-size 16)
+
+    (def transpose-cache-counters {:hits (java.util.concurrent.atomic.AtomicLong.)
+                                   :misses (java.util.concurrent.atomic.AtomicLong.)
+                                   :evictions (java.util.concurrent.atomic.AtomicLong.)})
+
+    (defn count! [counter]
+        (.incrementAndGet ^java.util.concurrent.atomic.AtomicLong (transpose-cache-counters counter)))
+
+    (def transpose-cache
+        (proxy [java.util.LinkedHashMap] [16 0.75 true]
+            (removeEldestEntry [_]
+                (and (> (.size ^java.util.Map this) transpose-cache-size)
+                     (pos? (count! :evictions))))))
+
+    (def transpose-cache-cleared (java.lang.ref.ReferenceQueue.))
+
+    (defn identity-key [x]
+        (let [hash (System/identityHashCode x)]
+            (proxy [java.lang.ref.WeakReference] [x transpose-cache-cleared]
+                (hashCode [] hash)
+                (equals [other]
+                    (or (identical? this other)
+                        (and (instance? java.lang.ref.WeakReference other)
+                             (let [referent (.get ^java.lang.ref.WeakReference this)]
+                                 (and (some? referent) (identical? referent (.get ^java.lang.ref.WeakReference other))))))))))
+
+    ; A cleared key still equals itself, so it removes its own entry. Callers hold the cache lock.
+    (defn purge-transpose-cache! []
+        (loop []
+            (when-let [key (.poll ^java.lang.ref.ReferenceQueue transpose-cache-cleared)]
+                (.remove ^java.util.Map transpose-cache key)
+                (recur))))
+
+    (defn cached-transpose [m]
+        (let [key (identity-key m)]
+            (or (when-let [cached (locking transpose-cache
+                                      (purge-transpose-cache!)
+                                      (.get ^java.util.Map transpose-cache key))]
+                    (count! :hits)
+                    cached)
+                (let [tm (transpose m)]
+                    (count! :misses)
+                    (locking transpose-cache
+                        (purge-transpose-cache!)
+                        (.put ^java.util.Map transpose-cache key tm))
+                    tm))))
+
+    (defn transpose-cache-stats []
+        (into {:size (long (locking transpose-cache
+                               (purge-transpose-cache!)
+                               (.size ^java.util.Map transpose-cache)))}
+              (map (fn [[k v]] [k (.get ^java.util.concurrent.atomic.AtomicLong v)]))
+              transpose-cache-counters))
+
     (defn m1*m2 [m1 m2]
-        (let [tm2 (transpose m2)] (mapv (fn [v1] (mapv (fn [v2] (dot v1 v2)) tm2)) m1)))
+        (let [tm2 (cached-transpose m2)] (mapv (fn [v1] (mapv (fn [v2] (dot v1 v2)) tm2)) m1)))
     
-    (defn m*m [& ms] 
-        (reduce m1*m2 (first ms) (rest ms)))
+    (defn expr? [e]
+        (and (map? e) (contains? e ::op)))
+
+    (defn expr-shape [e]
+        (cond
+            (expr? e) (::shape e)
+            (numeric-vector? e) [(count e)]
+            (and (vector? e) (check-vecs e)) [(count e) (count (first e))]))
+
+    (defn expr [f args]
+        {:pre [(seq args) (some? (expr-shape (first args))) (apply = (map expr-shape args))]}
+        {::op f ::args (vec args) ::shape (expr-shape (first args))})
+
+    (defn e+ [& args]
+        (expr + args))
+
+    (defn e- [& args]
+        (expr - args))
+
+    (defn e* [& args]
+        (expr * args))
+
+    (defn ed [& args]
+        (expr / args))
+
+    (defn e*s [e & s]
+        {:pre [(every? number? s)]}
+        (if (empty? s)
+            e
+            (let [k (apply * s)] (expr #(* k %) [e]))))
+
+    (defn expr-row [e i]
+        (if (expr? e)
+            (assoc e ::args (mapv #(expr-row % i) (::args e)) ::shape (subvec (::shape e) 1))
+            (nth e i)))
+
+    (defn expr-fn [e]
+        (if (expr? e)
+            (let [f (::op e)
+                  [a b & more :as fs] (mapv expr-fn (::args e))]
+                (cond
+                    (nil? b) (fn [i] (f (a i)))
+                    (nil? more) (fn [i] (f (a i) (b i)))
+                    :else (fn [i] (apply f (map #(% i) fs)))))
+            (fn [i] (nth e i))))
+
+    (defn evaluate [e]
+        (cond
+            (not (expr? e)) e
+            (== 1 (count (::shape e))) (mapv (expr-fn e) (range (first (::shape e))))
+            :else (mapv #(evaluate (expr-row e %)) (range (first (::shape e))))))
+
+    (defn check-chain [ms]
+        (or (not *validate*)
+            (and (every? #(and (vector? %) (check-vecs %)) ms)
+                 (every? (fn [[m1 m2]] (== (count (first m1)) (count m2))) (partition 2 1 ms)))))
+
+    (defn chain-dims [ms]
+        (conj (mapv count ms) (count (first (peek ms)))))
+
+    (defn chain-plan [dims]
+        (let [n (dec (count dims))
+              cell (fn [table i k j]
+                       (+ (first (table [i k])) (first (table [(inc k) j])) (* (dims i) (dims (inc k)) (dims (inc j)))))
+              best (fn [table i j]
+                       (reduce (fn [[cost split] k]
+                                   (let [candidate (cell table i k j)]
+                                       (if (or (nil? cost) (< candidate cost)) [candidate k] [cost split])))
+                               [nil nil]
+                               (range i j)))
+              table (reduce (fn [table [i j]] (assoc table [i j] (best table i j)))
+                            (into {} (for [i (range n)] [[i i] [0 nil]]))
+                            (for [len (range 2 (inc n)) i (range (- (inc n) len))] [i (+ i len -1)]))
+              order (fn order [i j]
+                        (if (== i j) i (let [k (second (table [i j]))] [(order i k) (order (inc k) j)])))]
+            {:order (order 0 (dec n)) :flops (* 2 (first (table [0 (dec n)])))}))
+
+    (defn chain-multiply [ms order]
+        (if (vector? order)
+            (m1*m2 (chain-multiply ms (first order)) (chain-multiply ms (second order)))
+            (ms order)))
+
+    (defn m*m-plan [& ms]
+        {:pre [(check-chain ms)]}
+        (chain-plan (chain-dims (vec ms))))
+
+    (defn m*m [& ms]
+        (if (empty? (rest ms))
+            (first ms)
+            (chain-multiply (vec ms) (:order (apply m*m-plan ms)))))
+
+    (def tensor-magic 0x534E4554)
+
+    (def tensor-segment 134217728)
+
+    (defn tensor-path [path]
+        (.toPath (java.io.File. (str path))))
+
+    (defn tensor-map [^java.nio.channels.FileChannel channel mode start size]
+        (mapv (fn [from]
+                  (-> (.map channel mode (+ start (* 8 from)) (* 8 (min tensor-segment (- size from))))
+                      (.order java.nio.ByteOrder/LITTLE_ENDIAN)
+                      (.asDoubleBuffer)))
+              (range 0 size tensor-segment)))
+
+    (defn mapped-get [segments i]
+        (.get ^java.nio.DoubleBuffer (segments (quot i tensor-segment)) (int (rem i tensor-segment))))
+
+    (defn mapped-vector [segments shape offset]
+        (let [inner (subvec shape 1)
+              stride (reduce * 1 inner)]
+            (index-vector (first shape)
+                          (fn [i]
+                              (let [pos (+ offset (* i stride))]
+                                  (if (empty? inner) (mapped-get segments pos) (mapped-vector segments inner pos)))))))
+
+    (defn check-tensor-file [ok? & message]
+        (when-not ok?
+            (throw (IllegalArgumentException. ^String (apply str message)))))
+
+    (defn load-tensor [path]
+        (with-open [channel (java.nio.channels.FileChannel/open (tensor-path path) (into-array java.nio.file.OpenOption [java.nio.file.StandardOpenOption/READ]))]
+            (check-tensor-file (>= (.size channel) 8) "Not a tensor file: " path)
+            (let [header (.order (.map channel java.nio.channels.FileChannel$MapMode/READ_ONLY 0 (min (.size channel) 2048)) java.nio.ByteOrder/LITTLE_ENDIAN)
+                  _ (check-tensor-file (== tensor-magic (.getInt header 0)) "Not a tensor file: " path)
+                  _ (check-tensor-file (== 1 (.get header 4)) "Unsupported dtype " (.get header 4) " in " path)
+                  rank (bit-and (.get header 5) 0xFF)
+                  start (+ 8 (* 8 rank))
+                  _ (check-tensor-file (>= (.size channel) start) "Truncated tensor header in " path)
+                  shape (mapv #(.getLong header (int (+ 8 (* 8 %)))) (range rank))
+                  size (reduce * 1 shape)]
+                (check-tensor-file (== (.size channel) (+ start (* 8 size))) "Expected " size " doubles for shape " shape " in " path)
+                (let [segments (tensor-map channel java.nio.channels.FileChannel$MapMode/READ_ONLY start size)]
+                    (if (zero? rank) (mapped-get segments 0) (mapped-vector segments shape 0))))))
+
+    (defn tensor-shape [t]
+        (if (vector? t)
+            (into [(count t)] (when (pos? (count t)) (tensor-shape (first t))))
+            []))
+
+    (defn tensor-shape? [t shape]
+        (if (empty? shape)
+            (number? t)
+            (and (vector? t) (== (count t) (first shape)) (every? #(tensor-shape? % (subvec shape 1)) t))))
+
+    (defn save-tensor [path t]
+        (let [shape (tensor-shape t)
+              leaves (if (vector? t) (flatten t) [t])
+              size (reduce * 1 shape)
+              start (+ 8 (* 8 (count shape)))]
+            (assert (tensor-shape? t shape) (str "Not a rectangular numeric tensor: " t))
+            (with-open [channel (java.nio.channels.FileChannel/open
+                                    (tensor-path path)
+                                    (into-array java.nio.file.OpenOption [java.nio.file.StandardOpenOption/CREATE
+                                                                          java.nio.file.StandardOpenOption/TRUNCATE_EXISTING
+                                                                          java.nio.file.StandardOpenOption/READ
+                                                                          java.nio.file.StandardOpenOption/WRITE]))]
+                (let [header (.order (java.nio.ByteBuffer/allocate start) java.nio.ByteOrder/LITTLE_ENDIAN)]
+                    (.putInt header (int tensor-magic))
+                    (.put header (byte 1))
+                    (.put header (byte (count shape)))
+                    (.putShort header (short 0))
+                    (doseq [dim shape] (.putLong header (long dim)))
+                    (.flip header)
+                    (while (.hasRemaining header) (.write channel header)))
+                (let [segments (tensor-map channel java.nio.channels.FileChannel$MapMode/READ_WRITE start size)]
+                    (reduce (fn [i x]
+                                (.put ^java.nio.DoubleBuffer (segments (quot i tensor-segment)) (int (rem i tensor-segment)) (double x))
+                                (inc i))
+                            0
+                            leaves)))
+            path))
+
+    (defn sparse? [s]
+        (and (map? s) (vector? (:shape s)) (vector? (:indices s)) (vector? (:values s))
+             (== (count (:indices s)) (count (:values s)))))
+
+    (defn sparse-vector [v]
+        {:pre [(check-vecs [v])]}
+        (let [indices (filterv #(not (zero? (nth v %))) (range (count v)))]
+            {:shape [(count v)] :indices indices :values (mapv v indices)}))
+
+    (defn offsets [counts]
+        (vec (reductions + 0 counts)))
+
+    (defn sparse-matrix [m]
+        {:pre [(check-vecs m)]}
+        (let [rows (mapv sparse-vector m)]
+            {:shape [(count m) (count (first m))]
+             :row-ptr (offsets (map (comp count :indices) rows))
+             :indices (into [] (mapcat :indices) rows)
+             :values (into [] (mapcat :values) rows)}))
+
+    (defn coo->csr [{:keys [shape rows indices values]}]
+        (let [entries (sort-by (juxt first second) (map vector rows indices values))
+              merged (reduce (fn [acc [i j x]]
+                                 (let [[pi pj px] (peek acc)]
+                                     (if (and (= i pi) (= j pj)) (conj (pop acc) [i j (+ px x)]) (conj acc [i j x]))))
+                             []
+                             entries)
+              counts (frequencies (map first merged))]
+            {:shape shape
+             :row-ptr (offsets (map #(counts % 0) (range (first shape))))
+             :indices (mapv second merged)
+             :values (mapv peek merged)}))
+
+    (defn csr [s]
+        {:pre [(or (not *validate*) (and (sparse? s) (== 2 (count (:shape s)))))]}
+        (if (contains? s :row-ptr) s (coo->csr s)))
+
+    (defn sparse-row [{:keys [shape row-ptr indices values]} i]
+        (let [from (row-ptr i)
+              to (row-ptr (inc i))]
+            {:shape [(second shape)] :indices (subvec indices from to) :values (subvec values from to)}))
+
+    ; Gaps take the type of the stored values; without any stored value they are doubles.
+    (defn zero-like [x]
+        (if (or (nil? x) (instance? Double x)) 0.0 0))
+
+    (defn fill-sparse [{:keys [shape indices values]} zero]
+        (persistent! (reduce (fn [acc k] (assoc! acc (indices k) (values k)))
+                             (transient (vec (repeat (first shape) zero)))
+                             (range (count indices)))))
+
+    (defn sparse->dense [s]
+        {:pre [(or (not *validate*) (sparse? s))]}
+        (let [zero (zero-like (first (:values s)))]
+            (if (== 1 (count (:shape s)))
+                (fill-sparse s zero)
+                (let [m (csr s)]
+                    (mapv #(fill-sparse (sparse-row m %) zero) (range (first (:shape m))))))))
+
+    (defn sparse-add [a b]
+        (let [{ia :indices xa :values} a
+              {ib :indices xb :values} b]
+            (loop [p 0 q 0 indices (transient []) values (transient [])]
+                (let [i (if (< p (count ia)) (ia p) Long/MAX_VALUE)
+                      j (if (< q (count ib)) (ib q) Long/MAX_VALUE)]
+                    (cond
+                        (== i j Long/MAX_VALUE) {:shape (:shape a) :indices (persistent! indices) :values (persistent! values)}
+                        (< i j) (recur (inc p) q (conj! indices i) (conj! values (xa p)))
+                        (> i j) (recur p (inc q) (conj! indices j) (conj! values (xb q)))
+                        :else (let [x (+ (xa p) (xb q))]
+                                  (if (zero? x)
+                                      (recur (inc p) (inc q) indices values)
+                                      (recur (inc p) (inc q) (conj! indices i) (conj! values x)))))))))
+
+    (defn check-sparse-vecs [svs]
+        (or (not *validate*)
+            (and (every? #(and (sparse? %) (== 1 (count (:shape %)))) svs)
+                 (apply = (map :shape svs)))))
+
+    (defn sv+ [& svs]
+        {:pre [(seq svs) (check-sparse-vecs svs)]}
+        (reduce sparse-add svs))
+
+    (defn sdot [a b]
+        {:pre [(check-sparse-vecs [a b])]}
+        (let [{ia :indices xa :values} a
+              {ib :indices xb :values} b]
+            (loop [p 0 q 0 acc 0.0]
+                (if (and (< p (count ia)) (< q (count ib)))
+                    (let [i (ia p) j (ib q)]
+                        (cond
+                            (< i j) (recur (inc p) q acc)
+                            (> i j) (recur p (inc q) acc)
+                            :else (recur (inc p) (inc q) (+ acc (* (xa p) (xb q))))))
+                    acc))))
+
+    (defn sm*v [s v]
+        {:pre [(check-vecs [v]) (or (not *validate*) (== (second (:shape (csr s))) (count v)))]}
+        (let [{:keys [shape row-ptr indices values]} (csr s)]
+            (mapv (fn [i]
+                      (loop [k (row-ptr i) acc 0.0]
+                          (if (< k (row-ptr (inc i)))
+                              (recur (inc k) (+ acc (* (values k) (nth v (indices k)))))
+                              acc)))
+                  (range (first shape)))))
+
+    (defn stranspose [s]
+        (let [{[rows cols] :shape :keys [row-ptr indices values]} (csr s)
+              order (sort-by #(indices %) (range (count indices)))
+              row-of (vec (mapcat #(repeat (- (row-ptr (inc %)) (row-ptr %)) %) (range rows)))
+              counts (frequencies indices)]
+            {:shape [cols rows]
+             :row-ptr (offsets (map #(counts % 0) (range cols)))
+             :indices (mapv row-of order)
+             :values (mapv values order)}))
+
+    (defn sm*m [a b]
+        {:pre [(or (not *validate*) (== (second (:shape (csr a))) (first (:shape (csr b)))))]}
+        (let [{[rows] :shape :as a} (csr a)
+              {[_ cols] :shape :as b} (csr b)
+              out (mapv (fn [i]
+                            (let [{ks :indices xs :values} (sparse-row a i)
+                                  acc (reduce (fn [acc t]
+                                                  (let [x (xs t)
+                                                        {js :indices ys :values} (sparse-row b (ks t))]
+                                                      (reduce (fn [acc u]
+                                                                  (let [j (js u)
+                                                                        p (* x (ys u))]
+                                                                      (assoc acc j (if-let [y (acc j)] (+ y p) p))))
+                                                              acc
+                                                              (range (count js)))))
+                                              (sorted-map)
+                                              (range (count ks)))]
+                                (filterv (comp not zero? val) acc)))
+                        (range rows))]
+            {:shape [rows cols]
+             :row-ptr (offsets (map count out))
+             :indices (into [] (comp cat (map key)) out)
+             :values (into [] (comp cat (map val)) out)}))
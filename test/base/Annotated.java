@@ -1,4 +1,6 @@
 package base;
 
-public record Annotated<T>(T value, String context) {
+import java.util.function.Supplier;
+
+public record Annotated<T>(T value, Supplier<String> context) {
 }
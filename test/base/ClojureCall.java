@@ -1,51 +1,128 @@
 package base;
 
+import clojure.java.api.Clojure;
 import clojure.lang.ArraySeq;
 import clojure.lang.IFn;
+import clojure.lang.Indexed;
 import org.junit.Assert;
 
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
 public final class ClojureCall {
     private ClojureCall() {}
 
+    public record Batch(Object[] results, SortedMap<Integer, Throwable> failures) {
+    }
+
+    private static final class Driver {
+        private static final IFn DRIVER = (IFn) Clojure.var("clojure.core", "eval").invoke(Clojure.read("""
+                (fn [^clojure.lang.IFn f ^objects arg-sets]
+                    (let [results (object-array (alength arg-sets))
+                          failures (java.util.TreeMap.)]
+                        (loop [i 0]
+                            (when (< i (alength arg-sets))
+                                (let [^objects args (aget arg-sets i)]
+                                    (try
+                                        (aset results i (case (alength args)
+                                                            0 (.invoke f)
+                                                            1 (.invoke f (aget args 0))
+                                                            2 (.invoke f (aget args 0) (aget args 1))
+                                                            3 (.invoke f (aget args 0) (aget args 1) (aget args 2))
+                                                            (.applyTo f (clojure.lang.ArraySeq/create args))))
+                                        (catch Exception e (.put failures (int i) e))
+                                        (catch StackOverflowError e (.put failures (int i) e))
+                                        (catch AssertionError e (.put failures (int i) e))))
+                                (recur (inc i))))
+                        [results failures]))
+                """));
+    }
+
+    @SuppressWarnings("unchecked")
+    public static Batch batch(final IFn f, final Object[][] args) {
+        final Metrics.Span span = Metrics.start();
+        try {
+            final Indexed result = (Indexed) Driver.DRIVER.invoke(f, args);
+            return new Batch((Object[]) result.nth(0), new TreeMap<>((Map<Integer, Throwable>) result.nth(1)));
+        } finally {
+            span.stop(f, "batch");
+        }
+    }
+
+    public static Object[] nullable(final IFn f, final IntFunction<? extends Supplier<String>> context, final Object[][] args) {
+        final Batch batch = batch(f, args);
+        if (!batch.failures().isEmpty()) {
+            final Map.Entry<Integer, Throwable> first = batch.failures().firstEntry();
+            throw new ClojureException(
+                    "No error expected in " + context.apply(first.getKey()).get() + " (" + batch.failures().size() + " of " + args.length + " calls failed)",
+                    first.getValue()
+            );
+        }
+        return batch.results();
+    }
+
     public static Object nullable(final IFn f, final String context, final Object[] args) {
+        return nullable(f, Context.of(context), args);
+    }
+
+    public static Object nullable(final IFn f, final Supplier<String> context, final Object[] args) {
         try {
             return rawCall(f, args);
         } catch (Exception | StackOverflowError | AssertionError e) {
-            throw new ClojureException("No error expected in " + context, e);
+            throw new ClojureException("No error expected in " + context.get(), e);
         }
     }
 
     public static Object nonNull(final IFn f, final String context, final Object[] args) {
+        return nonNull(f, Context.of(context), args);
+    }
+
+    public static Object nonNull(final IFn f, final Supplier<String> context, final Object[] args) {
         final Object result = nullable(f, context, args);
         if (result == null) {
-            throw new ClojureException("Expected non-null in " + context);
+            throw new ClojureException("Expected non-null in " + context.get());
         }
         return result;
     }
 
     public static <T> T nullableTyped(final IFn f, final String context, final Class<T> clazz, final Object[] args) {
+        return nullableTyped(f, Context.of(context), clazz, args);
+    }
+
+    public static <T> T nullableTyped(final IFn f, final Supplier<String> context, final Class<T> clazz, final Object[] args) {
         final Object result = nullable(f, context, args);
         if (result == null) {
             return null;
         }
         if (!clazz.isAssignableFrom(result.getClass())) {
-            throw new ClojureException(String.format("Expected type %s, found %s of type %s in %s", clazz.getCanonicalName(), result, result.getClass().getCanonicalName(), context));
+            throw new ClojureException(String.format("Expected type %s, found %s of type %s in %s", clazz.getCanonicalName(), result, result.getClass().getCanonicalName(), context.get()));
         }
         return clazz.cast(result);
     }
 
     public static <T> T nonNullTyped(final IFn f, final String context, final Class<T> clazz, final Object[] args) {
+        return nonNullTyped(f, Context.of(context), clazz, args);
+    }
+
+    public static <T> T nonNullTyped(final IFn f, final Supplier<String> context, final Class<T> clazz, final Object[] args) {
         final Object result = nullable(f, context, args);
         if (result == null) {
-            throw new ClojureException(String.format("Expected non-null of type %s, found null in %s", clazz.getCanonicalName(), context));
+            throw new ClojureException(String.format("Expected non-null of type %s, found null in %s", clazz.getCanonicalName(), context.get()));
         }
         if (!clazz.isAssignableFrom(result.getClass())) {
-            throw new ClojureException(String.format("Expected non-null of type %s, found %s of type %s in %s", clazz.getCanonicalName(), result, result.getClass().getCanonicalName(), context));
+            throw new ClojureException(String.format("Expected non-null of type %s, found %s of type %s in %s", clazz.getCanonicalName(), result, result.getClass().getCanonicalName(), context.get()));
         }
         return clazz.cast(result);
     }
 
     public static void expectThrow(final IFn f, final String context, final Class<? extends Throwable> errorClass, final Object[] args) {
+        expectThrow(f, Context.of(context), errorClass, args);
+    }
+
+    public static void expectThrow(final IFn f, final Supplier<String> context, final Class<? extends Throwable> errorClass, final Object[] args) {
         final Object result;
         try {
             result = rawCall(f, args);
@@ -53,12 +130,21 @@ public final class ClojureCall {
             if (errorClass.isAssignableFrom(e.getClass())) {
                 return;
             }
-            throw new ClojureException(String.format("Expected error of type %s, found of type %s in %s", errorClass.getCanonicalName(), e.getClass().getCanonicalName(), context), e);
+            throw new ClojureException(String.format("Expected error of type %s, found of type %s in %s", errorClass.getCanonicalName(), e.getClass().getCanonicalName(), context.get()), e);
         }
-        throw new ClojureException(String.format("Expected error of type %s, found %s in %s", errorClass.getCanonicalName(), result, context));
+        throw new ClojureException(String.format("Expected error of type %s, found %s in %s", errorClass.getCanonicalName(), result, context.get()));
     }
 
     private static Object rawCall(final IFn f, final Object[] args) {
+        final Metrics.Span span = Metrics.start();
+        try {
+            return invoke(f, args);
+        } finally {
+            span.stop(f, "call");
+        }
+    }
+
+    private static Object invoke(final IFn f, final Object[] args) {
         return switch (args.length) {
             case 0 -> f.invoke();
             case 1 -> f.invoke(args[0]);
@@ -1,15 +1,39 @@
 package base;
 
 import clojure.java.api.Clojure;
+import clojure.lang.Compiler;
 import clojure.lang.IFn;
+import clojure.lang.LockingTransaction;
+import clojure.lang.RT;
+import clojure.lang.Ref;
+import clojure.lang.Var;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.TimeUnit;
 
 public class ClojureNamespace {
     private final String ns;
 
+    private static final boolean AOT = Boolean.getBoolean("base.aot");
+    private static final Path AOT_CACHE = Path.of(System.getProperty("base.aot.cache", "out" + File.separator + "aot"));
+
     private static final IFn loadFile = Clojure.var("clojure.core", "load-file");
+    private static final IFn conj = Clojure.var("clojure.core", "conj");
     private static final IFn require = Clojure.var("clojure.core", "require");
+    private static final IFn compile = Clojure.var("clojure.core", "compile");
+    private static final Var compilePath = RT.var("clojure.core", "*compile-path*");
+    private static final Var loadedLibsVar = RT.var("clojure.core", "*loaded-libs*");
 
     private ClojureNamespace(final String ns) {
         this.ns = ns;
@@ -17,11 +41,81 @@ public class ClojureNamespace {
 
     public static ClojureNamespace load(final String ns) {
         System.err.println("Loading namespace \"" + ns + "\"");
-        loadFile.invoke("src" + File.separator + ns + ".clj");
-        System.err.println("Namespace \"" + ns + "\" loaded");
+        final long start = System.nanoTime();
+        final Path source = Path.of("src", ns + ".clj");
+        final String mode = AOT ? loadCompiled(ns, source) : loadSource(source);
+        System.err.printf(
+                "Namespace \"%s\" loaded (%s) in %d ms%n",
+                ns, mode, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)
+        );
         return require(ns);
     }
 
+    private static String loadSource(final Path source) {
+        loadFile.invoke(source.toString());
+        return "source";
+    }
+
+    private static String loadCompiled(final String ns, final Path source) {
+        final Path classes = AOT_CACHE.resolve(ns).resolve(hash(source));
+        final String init = ns.replace('-', '_').replace('.', '/') + "__init";
+        if (!Files.isRegularFile(classes.resolve(init + ".class"))) {
+            compileTo(ns, classes);
+            return "aot compiled";
+        }
+        try {
+            final ClassLoader loader = new URLClassLoader(new URL[]{classes.toUri().toURL()}, RT.baseLoader());
+            Var.pushThreadBindings(RT.map(Compiler.LOADER, loader));
+            try {
+                Class.forName(init.replace('/', '.'), true, loader);
+            } finally {
+                Var.popThreadBindings();
+            }
+        } catch (final MalformedURLException | ClassNotFoundException e) {
+            throw new ClojureException("Cannot load compiled namespace \"" + ns + "\" from " + classes, e);
+        }
+        final Ref loadedLibs = (Ref) loadedLibsVar.deref();
+        try {
+            LockingTransaction.runInTransaction(() -> loadedLibs.commute(conj, RT.list(Clojure.read(ns))));
+        } catch (final Exception e) {
+            throw new ClojureException("Cannot register compiled namespace \"" + ns + "\"", e);
+        }
+        return "aot cache";
+    }
+
+    private static void compileTo(final String ns, final Path classes) {
+        try {
+            Files.createDirectories(classes.getParent());
+            final Path temp = Files.createTempDirectory(classes.getParent(), "compile");
+            Var.pushThreadBindings(RT.map(compilePath, temp.toString()));
+            try {
+                compile.invoke(Clojure.read(ns));
+            } finally {
+                Var.popThreadBindings();
+            }
+            try {
+                Files.move(temp, classes, StandardCopyOption.ATOMIC_MOVE);
+            } catch (final IOException e) {
+                if (!Files.isDirectory(classes)) {
+                    throw e;
+                }
+            }
+        } catch (final IOException e) {
+            throw new UncheckedIOException("Cannot compile namespace \"" + ns + "\" to " + classes, e);
+        }
+    }
+
+    private static String hash(final Path source) {
+        try {
+            final byte[] digest = MessageDigest.getInstance("SHA-256").digest(Files.readAllBytes(source));
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (final IOException e) {
+            throw new UncheckedIOException("Cannot read " + source, e);
+        } catch (final NoSuchAlgorithmException e) {
+            throw new AssertionError(e);
+        }
+    }
+
     public static ClojureNamespace require(final String ns) {
         require.invoke(Clojure.read(ns));
         return new ClojureNamespace(ns);
@@ -0,0 +1,48 @@
+package base;
+
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+public final class Context implements Supplier<String> {
+    private static final int LIMIT = Integer.getInteger("base.context.limit", 0);
+
+    private final Supplier<String> render;
+    private String value;
+
+    private Context(final Supplier<String> render) {
+        this.render = render;
+    }
+
+    public static Context of(final String value) {
+        return new Context(() -> value);
+    }
+
+    public static Context lazy(final Supplier<String> render) {
+        return render instanceof final Context context ? context : new Context(render);
+    }
+
+    public static Context join(final List<? extends Supplier<String>> parts, final String prefix, final String suffix) {
+        return new Context(() -> parts.stream().map(Supplier::get).collect(Collectors.joining(" ", prefix, suffix)));
+    }
+
+    @Override
+    public synchronized String get() {
+        if (value == null) {
+            value = truncate(render.get());
+        }
+        return value;
+    }
+
+    private static String truncate(final String value) {
+        if (LIMIT <= 0 || value.length() <= LIMIT) {
+            return value;
+        }
+        return value.substring(0, LIMIT) + "... [" + (value.length() - LIMIT) + " more chars]";
+    }
+
+    @Override
+    public String toString() {
+        return get();
+    }
+}
@@ -0,0 +1,229 @@
+package base;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+public final class Metrics {
+    private static final String EXPORT = System.getProperty("base.metrics");
+    private static final com.sun.management.ThreadMXBean THREADS = threads();
+    private static final ThreadLocal<Scope> SCOPE = new ThreadLocal<>();
+    private static final Map<Key, Stats> STATS = new ConcurrentHashMap<>();
+    private static final Span NO_SPAN = new Span(0, 0);
+    private static final Scope NO_SCOPE = new Scope(null, null, null);
+
+    private static volatile boolean enabled = EXPORT != null;
+
+    static {
+        if (EXPORT != null) {
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                export(Path.of(EXPORT));
+                System.err.println("Metrics written to " + EXPORT);
+            }));
+        }
+    }
+
+    private Metrics() {
+    }
+
+    public record Key(String function, String shape, String phase) {
+    }
+
+    public record Summary(long count, long p50Nanos, long p90Nanos, long p99Nanos, long maxNanos, long meanBytes, long p99Bytes, long maxBytes) {
+    }
+
+    private static com.sun.management.ThreadMXBean threads() {
+        if (ManagementFactory.getThreadMXBean() instanceof final com.sun.management.ThreadMXBean threads && threads.isThreadAllocatedMemorySupported()) {
+            threads.setThreadAllocatedMemoryEnabled(true);
+            return threads;
+        }
+        return null;
+    }
+
+    private static long allocated() {
+        return THREADS == null ? 0 : THREADS.getCurrentThreadAllocatedBytes();
+    }
+
+    public static boolean enabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(final boolean value) {
+        enabled = value;
+    }
+
+    public static void reset() {
+        STATS.clear();
+    }
+
+    public static Scope scope(final String function, final Supplier<String> shape) {
+        if (!enabled) {
+            return NO_SCOPE;
+        }
+        final Scope scope = new Scope(function, shape.get(), SCOPE.get());
+        SCOPE.set(scope);
+        return scope;
+    }
+
+    public static Span start() {
+        return enabled ? new Span(System.nanoTime(), allocated()) : NO_SPAN;
+    }
+
+    public static Map<Key, Summary> snapshot() {
+        return STATS.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey(Comparator.comparing(Key::function).thenComparing(Key::shape).thenComparing(Key::phase)))
+                .collect(Collectors.toMap(Map.Entry::getKey, e -> e.getValue().summary(), (a, b) -> a, LinkedHashMap::new));
+    }
+
+    public static void export(final Path path) {
+        final Map<Key, Summary> snapshot = snapshot();
+        final String text = path.toString().endsWith(".csv") ? csv(snapshot) : json(snapshot);
+        try {
+            Files.writeString(path, text);
+        } catch (final IOException e) {
+            throw new UncheckedIOException("Cannot write metrics to " + path, e);
+        }
+    }
+
+    private static String csv(final Map<Key, Summary> snapshot) {
+        final StringBuilder sb = new StringBuilder("function,shape,phase,count,p50_ns,p90_ns,p99_ns,max_ns,mean_bytes,p99_bytes,max_bytes\n");
+        snapshot.forEach((key, s) -> sb.append(String.format(
+                "\"%s\",\"%s\",%s,%d,%d,%d,%d,%d,%d,%d,%d%n",
+                key.function().replace("\"", "\"\""), key.shape(), key.phase(),
+                s.count(), s.p50Nanos(), s.p90Nanos(), s.p99Nanos(), s.maxNanos(), s.meanBytes(), s.p99Bytes(), s.maxBytes()
+        )));
+        return sb.toString();
+    }
+
+    private static String json(final Map<Key, Summary> snapshot) {
+        return snapshot.entrySet().stream().map(e -> String.format(
+                "  {\"function\": \"%s\", \"shape\": \"%s\", \"phase\": \"%s\", \"count\": %d, \"p50_ns\": %d, \"p90_ns\": %d, \"p99_ns\": %d, \"max_ns\": %d, \"mean_bytes\": %d, \"p99_bytes\": %d, \"max_bytes\": %d}",
+                escape(e.getKey().function()), escape(e.getKey().shape()), e.getKey().phase(),
+                e.getValue().count(), e.getValue().p50Nanos(), e.getValue().p90Nanos(), e.getValue().p99Nanos(), e.getValue().maxNanos(),
+                e.getValue().meanBytes(), e.getValue().p99Bytes(), e.getValue().maxBytes()
+        )).collect(Collectors.joining(",\n", "[\n", "\n]\n"));
+    }
+
+    private static String escape(final String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+
+    public static final class Scope implements AutoCloseable {
+        private final String function;
+        private final String shape;
+        private final Scope previous;
+
+        private Scope(final String function, final String shape, final Scope previous) {
+            this.function = function;
+            this.shape = shape;
+            this.previous = previous;
+        }
+
+        @Override
+        public void close() {
+            if (this != NO_SCOPE) {
+                SCOPE.set(previous);
+            }
+        }
+    }
+
+    public static final class Span {
+        private final long nanos;
+        private final long bytes;
+
+        private Span(final long nanos, final long bytes) {
+            this.nanos = nanos;
+            this.bytes = bytes;
+        }
+
+        public void stop(final Object function, final String phase) {
+            if (this == NO_SPAN) {
+                return;
+            }
+            final long elapsed = System.nanoTime() - nanos;
+            final long allocated = allocated() - bytes;
+            final Scope scope = SCOPE.get();
+            final Key key = scope == null
+                    ? new Key(String.valueOf(function), "-", phase)
+                    : new Key(scope.function, scope.shape, phase);
+            STATS.computeIfAbsent(key, k -> new Stats()).record(elapsed, allocated);
+        }
+
+        public Span lap(final String phase) {
+            stop(null, phase);
+            return start();
+        }
+    }
+
+    private static final class Stats {
+        private final Histogram nanos = new Histogram();
+        private final Histogram bytes = new Histogram();
+        private long totalBytes;
+
+        synchronized void record(final long elapsed, final long allocated) {
+            nanos.record(elapsed);
+            bytes.record(allocated);
+            totalBytes += allocated;
+        }
+
+        synchronized Summary summary() {
+            return new Summary(
+                    nanos.count, nanos.percentile(0.5), nanos.percentile(0.9), nanos.percentile(0.99), nanos.max,
+                    totalBytes / Math.max(1, nanos.count), bytes.percentile(0.99), bytes.max
+            );
+        }
+    }
+
+    // Log-linear buckets: 16 per power of two, so percentiles are within about 6%.
+    private static final class Histogram {
+        private static final int SUB_BITS = 4;
+        private static final int SUB = 1 << SUB_BITS;
+
+        private final long[] counts = new long[64 * SUB];
+        private long count;
+        private long max;
+
+        private static int bucket(final long value) {
+            if (value < SUB) {
+                return (int) value;
+            }
+            final int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BITS;
+            return shift * SUB + (int) (value >>> shift);
+        }
+
+        private static long upperBound(final int bucket) {
+            if (bucket < 2 * SUB) {
+                return bucket;
+            }
+            final int shift = bucket / SUB - 1;
+            return ((long) (bucket % SUB + SUB + 1) << shift) - 1;
+        }
+
+        void record(final long value) {
+            final long v = Math.max(0, value);
+            counts[bucket(v)]++;
+            count++;
+            max = Math.max(max, v);
+        }
+
+        long percentile(final double p) {
+            final long rank = (long) Math.ceil(p * count);
+            long seen = 0;
+            for (int b = 0; b < counts.length; b++) {
+                seen += counts[b];
+                if (seen >= rank && counts[b] > 0) {
+                    return Math.min(upperBound(b), max);
+                }
+            }
+            return max;
+        }
+    }
+}
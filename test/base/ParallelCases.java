@@ -0,0 +1,71 @@
+package base;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+public final class ParallelCases {
+    private static final String THREADS = System.getProperty("base.test.threads", Integer.toString(Runtime.getRuntime().availableProcessors()));
+
+    private record Case(String name, long seed, Consumer<Random> body) {
+    }
+
+    private record Failure(Case testCase, Throwable error) {
+    }
+
+    private final SplittableRandom seeds;
+    private final List<Case> cases = new ArrayList<>();
+
+    public ParallelCases(final long seed) {
+        this.seeds = new SplittableRandom(seed);
+    }
+
+    public void add(final String name, final Consumer<Random> body) {
+        cases.add(new Case(name, seeds.nextLong(), body));
+    }
+
+    private static ExecutorService executor() {
+        if ("virtual".equals(THREADS)) {
+            return Executors.newVirtualThreadPerTaskExecutor();
+        }
+        return Executors.newFixedThreadPool(Math.max(1, Integer.parseInt(THREADS)));
+    }
+
+    public void run() {
+        final List<Failure> failures = new ArrayList<>();
+        try (final ExecutorService executor = executor()) {
+            final List<Future<?>> futures = cases.stream()
+                    .<Future<?>>map(c -> executor.submit(() -> c.body().accept(new Random(c.seed()))))
+                    .toList();
+            for (int i = 0; i < cases.size(); i++) {
+                try {
+                    futures.get(i).get();
+                } catch (final ExecutionException e) {
+                    failures.add(new Failure(cases.get(i), e.getCause()));
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new AssertionError("Interrupted while running " + cases.get(i).name(), e);
+                }
+            }
+        }
+        cases.clear();
+
+        if (!failures.isEmpty()) {
+            final Failure first = failures.getFirst();
+            final AssertionError error = new AssertionError(String.format(
+                    "%d case(s) failed, first: %s [seed %d]: %s",
+                    failures.size(), first.testCase().name(), first.testCase().seed(), first.error().getMessage()
+            ), first.error());
+            failures.subList(1, failures.size()).forEach(f -> error.addSuppressed(
+                    new AssertionError(f.testCase().name() + " [seed " + f.testCase().seed() + "]", f.error())
+            ));
+            throw error;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package linear;
+
+import clojure.lang.IPersistentVector;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+import java.util.function.Supplier;
+
+final class ClojureList<T extends Number> extends AbstractList<Tensor<T>> implements RandomAccess {
+    private final IPersistentVector vector;
+    private final Supplier<String> context;
+
+    ClojureList(final IPersistentVector vector, final Supplier<String> context) {
+        this.vector = vector;
+        this.context = context;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Tensor<T> get(final int i) {
+        return (Tensor<T>) Tensor.fromClojure(vector.nth(i), context);
+    }
+
+    @Override
+    public int size() {
+        return vector.count();
+    }
+}
@@ -0,0 +1,160 @@
+package linear;
+
+import base.Annotated;
+import clojure.lang.RT;
+
+import java.util.Arrays;
+
+public final class CooMatrix implements SparseTensor {
+    private final int rows;
+    private final int cols;
+    private final int[] rowIndices;
+    private final int[] colIndices;
+    private final double[] values;
+
+    public CooMatrix(final int rows, final int cols, final int[] rowIndices, final int[] colIndices, final double[] values) {
+        if (rowIndices.length != values.length || colIndices.length != values.length) {
+            throw new IllegalArgumentException("Expected " + values.length + " row and column indices");
+        }
+        for (int k = 0; k < values.length; k++) {
+            if (rowIndices[k] < 0 || rowIndices[k] >= rows || colIndices[k] < 0 || colIndices[k] >= cols) {
+                throw new IndexOutOfBoundsException("Entry (" + rowIndices[k] + ", " + colIndices[k] + ") outside " + rows + "x" + cols + " matrix");
+            }
+        }
+        this.rows = rows;
+        this.cols = cols;
+        this.rowIndices = rowIndices;
+        this.colIndices = colIndices;
+        this.values = values;
+    }
+
+    public static CooMatrix of(final Tensor<? extends Number> tensor) {
+        if (tensor instanceof final CooMatrix coo) {
+            return coo;
+        }
+        return CsrMatrix.of(tensor).toCoo();
+    }
+
+    public int rows() {
+        return rows;
+    }
+
+    public int cols() {
+        return cols;
+    }
+
+    @Override
+    public int[] shape() {
+        return new int[]{rows, cols};
+    }
+
+    @Override
+    public int nnz() {
+        return values.length;
+    }
+
+    // Entries may come in any order and repeat; duplicates are summed.
+    public CsrMatrix toCsr() {
+        final int[] byCol = countingSort(colIndices, cols, identity(values.length));
+        final int[] order = countingSort(rowIndices, rows, byCol);
+        final int[] rowPtr = new int[rows + 1];
+        final int[] indices = new int[values.length];
+        final double[] sums = new double[values.length];
+        int n = 0;
+        int lastRow = -1;
+        int lastCol = -1;
+        for (final int k : order) {
+            if (rowIndices[k] == lastRow && colIndices[k] == lastCol) {
+                sums[n - 1] += values[k];
+            } else {
+                lastRow = rowIndices[k];
+                lastCol = colIndices[k];
+                indices[n] = lastCol;
+                sums[n++] = values[k];
+            }
+            rowPtr[lastRow + 1] = n;
+        }
+        for (int i = 0; i < rows; i++) {
+            rowPtr[i + 1] = Math.max(rowPtr[i + 1], rowPtr[i]);
+        }
+        return new CsrMatrix(rows, cols, rowPtr, Arrays.copyOf(indices, n), Arrays.copyOf(sums, n));
+    }
+
+    private static int[] identity(final int n) {
+        final int[] result = new int[n];
+        Arrays.setAll(result, k -> k);
+        return result;
+    }
+
+    private static int[] countingSort(final int[] keys, final int range, final int[] order) {
+        final int[] start = new int[range + 1];
+        for (final int k : order) {
+            start[keys[k] + 1]++;
+        }
+        for (int key = 0; key < range; key++) {
+            start[key + 1] += start[key];
+        }
+        final int[] result = new int[order.length];
+        for (final int k : order) {
+            result[start[keys[k]]++] = k;
+        }
+        return result;
+    }
+
+    public CooMatrix transpose() {
+        return new CooMatrix(cols, rows, colIndices, rowIndices, values);
+    }
+
+    public DenseTensor multiply(final Tensor<? extends Number> vector) {
+        final double[] v = DenseTensor.of(vector).flat();
+        if (v.length != cols) {
+            throw new IllegalArgumentException("Cannot multiply " + rows + "x" + cols + " by vector of size " + v.length);
+        }
+        final double[] result = new double[rows];
+        for (int k = 0; k < values.length; k++) {
+            result[rowIndices[k]] += values[k] * v[colIndices[k]];
+        }
+        return new DenseTensor(result, rows);
+    }
+
+    public CsrMatrix multiply(final SparseTensor other) {
+        return toCsr().multiply(CsrMatrix.of(other));
+    }
+
+    @Override
+    public DenseTensor toDense() {
+        final double[] data = new double[rows * cols];
+        for (int k = 0; k < values.length; k++) {
+            data[rowIndices[k] * cols + colIndices[k]] += values[k];
+        }
+        return new DenseTensor(data, rows, cols);
+    }
+
+    @Override
+    public Annotated<Object> toClojure() {
+        return new Annotated<>(
+                RT.map(
+                        SHAPE, SparseTensor.toClojure(shape()),
+                        ROWS, SparseTensor.toClojure(rowIndices),
+                        INDICES, SparseTensor.toClojure(colIndices),
+                        VALUES, SparseTensor.toClojure(values)
+                ),
+                this::toString
+        );
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        return this == o || (o instanceof CsrMatrix || o instanceof CooMatrix) && toCsr().equals(o);
+    }
+
+    @Override
+    public int hashCode() {
+        return toCsr().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return toDense().toString();
+    }
+}
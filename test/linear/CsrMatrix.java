@@ -0,0 +1,244 @@
+package linear;
+
+import base.Annotated;
+import clojure.lang.RT;
+
+import java.util.Arrays;
+
+public final class CsrMatrix implements SparseTensor {
+    private final int rows;
+    private final int cols;
+    private final int[] rowPtr;
+    private final int[] indices;
+    private final double[] values;
+
+    CsrMatrix(final int rows, final int cols, final int[] rowPtr, final int[] indices, final double[] values) {
+        if (rowPtr.length != rows + 1 || rowPtr[rows] != indices.length || indices.length != values.length) {
+            throw new IllegalArgumentException("Inconsistent CSR arrays for " + rows + "x" + cols + " matrix");
+        }
+        this.rows = rows;
+        this.cols = cols;
+        this.rowPtr = rowPtr;
+        this.indices = indices;
+        this.values = values;
+    }
+
+    public static CsrMatrix of(final Tensor<? extends Number> tensor) {
+        if (tensor instanceof final CsrMatrix csr) {
+            return csr;
+        }
+        if (tensor instanceof final CooMatrix coo) {
+            return coo.toCsr();
+        }
+        final DenseTensor dense = DenseTensor.of(tensor);
+        if (dense.rank() != 2) {
+            throw new IllegalArgumentException("Expected matrix, found shape " + Arrays.toString(dense.shape()));
+        }
+        final int rows = dense.dim(0);
+        final int cols = dense.dim(1);
+        final double[] data = dense.flat();
+        final int[] rowPtr = new int[rows + 1];
+        final int nnz = SparseVector.nonZeros(data, 0, data.length);
+        final int[] indices = new int[nnz];
+        final double[] values = new double[nnz];
+        for (int i = 0; i < rows; i++) {
+            rowPtr[i + 1] = SparseVector.compress(data, i * cols, (i + 1) * cols, indices, values, rowPtr[i]);
+        }
+        return new CsrMatrix(rows, cols, rowPtr, indices, values);
+    }
+
+    public int rows() {
+        return rows;
+    }
+
+    public int cols() {
+        return cols;
+    }
+
+    @Override
+    public int[] shape() {
+        return new int[]{rows, cols};
+    }
+
+    @Override
+    public int nnz() {
+        return indices.length;
+    }
+
+    public SparseVector row(final int i) {
+        return new SparseVector(cols, Arrays.copyOfRange(indices, rowPtr[i], rowPtr[i + 1]), Arrays.copyOfRange(values, rowPtr[i], rowPtr[i + 1]));
+    }
+
+    public DenseTensor multiply(final Tensor<? extends Number> vector) {
+        final double[] v = DenseTensor.of(vector).flat();
+        if (v.length != cols) {
+            throw new IllegalArgumentException("Cannot multiply " + rows + "x" + cols + " by vector of size " + v.length);
+        }
+        final double[] result = new double[rows];
+        for (int i = 0; i < rows; i++) {
+            double acc = 0.0;
+            for (int k = rowPtr[i]; k < rowPtr[i + 1]; k++) {
+                acc += values[k] * v[indices[k]];
+            }
+            result[i] = acc;
+        }
+        return new DenseTensor(result, rows);
+    }
+
+    // Gustavson's row-by-row product: each result row accumulates the rows of
+    // `other` selected by the nonzeros of this row, in increasing k.
+    public CsrMatrix multiply(final CsrMatrix other) {
+        if (other.rows != cols) {
+            throw new IllegalArgumentException("Cannot multiply " + rows + "x" + cols + " by " + other.rows + "x" + other.cols);
+        }
+        final double[] acc = new double[other.cols];
+        final int[] marker = new int[other.cols];
+        Arrays.fill(marker, -1);
+        final int[] touched = new int[other.cols];
+        final int[] resultPtr = new int[rows + 1];
+        int[] resultIndices = new int[Math.max(16, indices.length)];
+        double[] resultValues = new double[resultIndices.length];
+        int n = 0;
+        for (int i = 0; i < rows; i++) {
+            int count = 0;
+            for (int k = rowPtr[i]; k < rowPtr[i + 1]; k++) {
+                final double a = values[k];
+                final int row = indices[k];
+                for (int t = other.rowPtr[row]; t < other.rowPtr[row + 1]; t++) {
+                    final int j = other.indices[t];
+                    if (marker[j] != i) {
+                        marker[j] = i;
+                        touched[count++] = j;
+                        acc[j] = a * other.values[t];
+                    } else {
+                        acc[j] += a * other.values[t];
+                    }
+                }
+            }
+            Arrays.sort(touched, 0, count);
+            if (n + count > resultIndices.length) {
+                resultIndices = Arrays.copyOf(resultIndices, Math.max(n + count, 2 * resultIndices.length));
+                resultValues = Arrays.copyOf(resultValues, resultIndices.length);
+            }
+            for (int t = 0; t < count; t++) {
+                if (acc[touched[t]] != 0) {
+                    resultIndices[n] = touched[t];
+                    resultValues[n++] = acc[touched[t]];
+                }
+            }
+            resultPtr[i + 1] = n;
+        }
+        return new CsrMatrix(rows, other.cols, resultPtr, Arrays.copyOf(resultIndices, n), Arrays.copyOf(resultValues, n));
+    }
+
+    public CsrMatrix transpose() {
+        final int[] resultPtr = new int[cols + 1];
+        for (final int j : indices) {
+            resultPtr[j + 1]++;
+        }
+        for (int j = 0; j < cols; j++) {
+            resultPtr[j + 1] += resultPtr[j];
+        }
+        final int[] next = Arrays.copyOf(resultPtr, cols);
+        final int[] resultIndices = new int[indices.length];
+        final double[] resultValues = new double[values.length];
+        for (int i = 0; i < rows; i++) {
+            for (int k = rowPtr[i]; k < rowPtr[i + 1]; k++) {
+                final int pos = next[indices[k]]++;
+                resultIndices[pos] = i;
+                resultValues[pos] = values[k];
+            }
+        }
+        return new CsrMatrix(cols, rows, resultPtr, resultIndices, resultValues);
+    }
+
+    public CooMatrix toCoo() {
+        final int[] rowIndices = new int[indices.length];
+        for (int i = 0; i < rows; i++) {
+            Arrays.fill(rowIndices, rowPtr[i], rowPtr[i + 1], i);
+        }
+        return new CooMatrix(rows, cols, rowIndices, indices.clone(), values.clone());
+    }
+
+    @Override
+    public DenseTensor toDense() {
+        final double[] data = new double[rows * cols];
+        for (int i = 0; i < rows; i++) {
+            for (int k = rowPtr[i]; k < rowPtr[i + 1]; k++) {
+                data[i * cols + indices[k]] = values[k];
+            }
+        }
+        return new DenseTensor(data, rows, cols);
+    }
+
+    @Override
+    public Annotated<Object> toClojure() {
+        return new Annotated<>(
+                RT.map(
+                        SHAPE, SparseTensor.toClojure(shape()),
+                        ROW_PTR, SparseTensor.toClojure(rowPtr),
+                        INDICES, SparseTensor.toClojure(indices),
+                        VALUES, SparseTensor.toClojure(values)
+                ),
+                this::toString
+        );
+    }
+
+    private boolean isCanonical() {
+        for (int i = 0; i < rows; i++) {
+            for (int k = rowPtr[i]; k < rowPtr[i + 1]; k++) {
+                if (values[k] == 0 || k > rowPtr[i] && indices[k] <= indices[k - 1]) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    // Sorted column indices without duplicates or stored zeros; equals and hashCode compare this form.
+    CsrMatrix canonical() {
+        if (isCanonical()) {
+            return this;
+        }
+        final CsrMatrix sorted = toCoo().toCsr();
+        final int[] resultPtr = new int[rows + 1];
+        final int[] resultIndices = new int[sorted.indices.length];
+        final double[] resultValues = new double[sorted.values.length];
+        int n = 0;
+        for (int i = 0; i < rows; i++) {
+            for (int k = sorted.rowPtr[i]; k < sorted.rowPtr[i + 1]; k++) {
+                if (sorted.values[k] != 0) {
+                    resultIndices[n] = sorted.indices[k];
+                    resultValues[n++] = sorted.values[k];
+                }
+            }
+            resultPtr[i + 1] = n;
+        }
+        return new CsrMatrix(rows, cols, resultPtr, Arrays.copyOf(resultIndices, n), Arrays.copyOf(resultValues, n));
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CsrMatrix || o instanceof CooMatrix)) {
+            return false;
+        }
+        final CsrMatrix lhs = canonical();
+        final CsrMatrix rhs = CsrMatrix.of((SparseTensor) o).canonical();
+        return rows == rhs.rows && cols == rhs.cols
+                && Arrays.equals(lhs.rowPtr, rhs.rowPtr) && Arrays.equals(lhs.indices, rhs.indices) && Arrays.equals(lhs.values, rhs.values);
+    }
+
+    @Override
+    public int hashCode() {
+        final CsrMatrix c = canonical();
+        return ((31 * rows + cols) * 31 + Arrays.hashCode(c.indices)) * 31 + Arrays.hashCode(c.values);
+    }
+
+    @Override
+    public String toString() {
+        return toDense().toString();
+    }
+}
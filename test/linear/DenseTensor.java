@@ -0,0 +1,310 @@
+package linear;
+
+import base.Annotated;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.SplittableRandom;
+import java.util.function.DoubleSupplier;
+import java.util.function.ToDoubleFunction;
+import java.util.random.RandomGenerator;
+import java.util.stream.IntStream;
+
+public final class DenseTensor implements Tensor<Double> {
+    private static final int GENERATE_BLOCK = 1 << 16;
+
+    private final double[] data;
+    private final int offset;
+    private final int[] shape;
+    private final int[] strides;
+    private int hash;
+    private boolean hashIsZero;
+
+    public DenseTensor(final double[] data, final int... shape) {
+        this(data, 0, shape.clone(), rowMajorStrides(shape));
+        if (data.length != size(shape)) {
+            throw new IllegalArgumentException("Expected " + size(shape) + " elements for shape " + Arrays.toString(shape) + ", found " + data.length);
+        }
+    }
+
+    DenseTensor(final double[] data, final int offset, final int[] shape, final int[] strides) {
+        this.data = data;
+        this.offset = offset;
+        this.shape = shape;
+        this.strides = strides;
+    }
+
+    public static DenseTensor zeros(final int... shape) {
+        return new DenseTensor(new double[size(shape)], shape);
+    }
+
+    public static DenseTensor generate(final DoubleSupplier rng, final int... shape) {
+        final double[] data = new double[size(shape)];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = rng.getAsDouble();
+        }
+        return new DenseTensor(data, shape);
+    }
+
+    public static DenseTensor generate(final long seed, final ToDoubleFunction<RandomGenerator> sampler, final int... shape) {
+        final double[] data = new double[size(shape)];
+        final int blocks = (data.length + GENERATE_BLOCK - 1) / GENERATE_BLOCK;
+        final SplittableRandom root = new SplittableRandom(seed);
+        final SplittableRandom[] randoms = new SplittableRandom[blocks];
+        for (int b = 0; b < blocks; b++) {
+            randoms[b] = root.split();
+        }
+        final IntStream indices = IntStream.range(0, blocks);
+        (blocks > 1 ? indices.parallel() : indices).forEach(b -> {
+            final SplittableRandom random = randoms[b];
+            final int to = Math.min(data.length, (b + 1) * GENERATE_BLOCK);
+            for (int i = b * GENERATE_BLOCK; i < to; i++) {
+                data[i] = sampler.applyAsDouble(random);
+            }
+        });
+        return new DenseTensor(data, shape);
+    }
+
+    public static DenseTensor of(final Tensor<? extends Number> tensor) {
+        if (tensor instanceof final DenseTensor dense) {
+            return dense;
+        }
+        if (tensor instanceof final SparseTensor sparse) {
+            return sparse.toDense();
+        }
+        final int[] shape = shapeOf(tensor);
+        final double[] data = new double[size(shape)];
+        fill(tensor, shape, 0, data, 0);
+        return new DenseTensor(data, shape);
+    }
+
+    static int[] shapeOf(final Tensor<? extends Number> tensor) {
+        final List<Integer> shape = new ArrayList<>();
+        for (Tensor<? extends Number> t = tensor; t instanceof final Vector<? extends Number> vector && vector.size() > 0; t = vector.get(0)) {
+            shape.add(vector.size());
+        }
+        return shape.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static int fill(final Tensor<? extends Number> tensor, final int[] shape, final int axis, final double[] data, final int pos) {
+        if (axis == shape.length) {
+            if (!(tensor instanceof final Scalar<? extends Number> scalar)) {
+                throw new IllegalArgumentException("Expected scalar at depth " + axis + ", found " + tensor);
+            }
+            data[pos] = scalar.value().doubleValue();
+            return pos + 1;
+        }
+        if (!(tensor instanceof final Vector<? extends Number> vector) || vector.size() != shape[axis]) {
+            throw new IllegalArgumentException("Expected vector of size " + shape[axis] + " at depth " + axis + ", found " + tensor);
+        }
+        int next = pos;
+        for (int i = 0; i < vector.size(); i++) {
+            next = fill(vector.get(i), shape, axis + 1, data, next);
+        }
+        return next;
+    }
+
+    static int size(final int[] shape) {
+        int size = 1;
+        for (final int dim : shape) {
+            size = Math.multiplyExact(size, dim);
+        }
+        return size;
+    }
+
+    private static int[] rowMajorStrides(final int[] shape) {
+        final int[] strides = new int[shape.length];
+        int stride = 1;
+        for (int axis = shape.length - 1; axis >= 0; axis--) {
+            strides[axis] = stride;
+            stride *= shape[axis];
+        }
+        return strides;
+    }
+
+    public int rank() {
+        return shape.length;
+    }
+
+    public int[] shape() {
+        return shape.clone();
+    }
+
+    public int dim(final int axis) {
+        return shape[axis];
+    }
+
+    public int size() {
+        return size(shape);
+    }
+
+    public double get(final int... index) {
+        int pos = offset;
+        for (int axis = 0; axis < shape.length; axis++) {
+            pos += index[axis] * strides[axis];
+        }
+        return data[pos];
+    }
+
+    public DenseTensor slice(final int i) {
+        return new DenseTensor(
+                data,
+                offset + i * strides[0],
+                Arrays.copyOfRange(shape, 1, shape.length),
+                Arrays.copyOfRange(strides, 1, strides.length)
+        );
+    }
+
+    public DenseTensor transposed() {
+        if (shape.length != 2) {
+            throw new IllegalStateException("Expected matrix, found shape " + Arrays.toString(shape));
+        }
+        return new DenseTensor(data, offset, new int[]{shape[1], shape[0]}, new int[]{strides[1], strides[0]});
+    }
+
+    public boolean isContiguous() {
+        return offset == 0 && data.length == size() && Arrays.equals(strides, rowMajorStrides(shape));
+    }
+
+    public DenseTensor contiguous() {
+        return isContiguous() ? this : new DenseTensor(flat().clone(), shape);
+    }
+
+    double[] flat() {
+        if (isContiguous()) {
+            return data;
+        }
+        final double[] result = new double[size()];
+        copyTo(0, offset, result, 0);
+        return result;
+    }
+
+    private int copyTo(final int axis, final int pos, final double[] target, final int targetPos) {
+        if (axis == shape.length) {
+            target[targetPos] = data[pos];
+            return targetPos + 1;
+        }
+        int next = targetPos;
+        for (int i = 0; i < shape[axis]; i++) {
+            next = copyTo(axis + 1, pos + i * strides[axis], target, next);
+        }
+        return next;
+    }
+
+    public Tensor<Double> toTensor() {
+        return shape.length == 0 ? new Scalar<>(data[offset]) : toVector();
+    }
+
+    public Vector<Double> toVector() {
+        if (shape.length == 0) {
+            throw new IllegalStateException("Scalar tensor cannot be viewed as vector");
+        }
+        return new Vector<>(new View(this));
+    }
+
+    @Override
+    public Annotated<Object> toClojure() {
+        return new Annotated<>(TensorVector.toClojure(this), this::toString);
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o instanceof final DenseTensor dense) {
+            if (hash != 0 && dense.hash != 0 && hash != dense.hash) {
+                return false;
+            }
+            return Arrays.equals(shape, dense.shape) && Arrays.equals(flat(), dense.flat());
+        }
+        if (o instanceof Scalar<?> || o instanceof Vector<?>) {
+            return toTensor().equals(o);
+        }
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        int h = hash;
+        if (h == 0 && !hashIsZero) {
+            h = structuralHash(flat(), shape);
+            if (h == 0) {
+                hashIsZero = true;
+            } else {
+                hash = h;
+            }
+        }
+        return h;
+    }
+
+    // Same value as the nested List/Scalar hash, folded bottom-up over the flat
+    // row-major data one axis at a time instead of recursing per element.
+    private static int structuralHash(final double[] values, final int[] shape) {
+        if (shape.length == 0) {
+            return Double.hashCode(values[0]);
+        }
+        final int last = shape[shape.length - 1];
+        int groups = size(Arrays.copyOf(shape, shape.length - 1));
+        int[] level = new int[groups];
+        for (int g = 0; g < groups; g++) {
+            int h = 1;
+            for (int k = g * last; k < (g + 1) * last; k++) {
+                h = 31 * h + Double.hashCode(values[k]);
+            }
+            level[g] = h;
+        }
+        for (int axis = shape.length - 2; axis >= 0; axis--) {
+            final int dim = shape[axis];
+            groups = size(Arrays.copyOf(shape, axis));
+            if (dim == 0) {
+                level = new int[groups];
+                Arrays.fill(level, 1);
+                continue;
+            }
+            for (int g = 0; g < groups; g++) {
+                int h = 1;
+                for (int k = g * dim; k < (g + 1) * dim; k++) {
+                    h = 31 * h + level[k];
+                }
+                level[g] = h;
+            }
+        }
+        return level[0];
+    }
+
+    @Override
+    public String toString() {
+        return toTensor().toString();
+    }
+
+    static DenseTensor viewed(final List<?> list) {
+        return list instanceof final View view ? view.tensor : null;
+    }
+
+    private static final class View extends AbstractList<Tensor<Double>> implements RandomAccess {
+        private final DenseTensor tensor;
+
+        private View(final DenseTensor tensor) {
+            this.tensor = tensor;
+        }
+
+        @Override
+        public Tensor<Double> get(final int i) {
+            if (i < 0 || i >= tensor.shape[0]) {
+                throw new IndexOutOfBoundsException(i);
+            }
+            return tensor.shape.length == 1
+                    ? new Scalar<>(tensor.data[tensor.offset + i * tensor.strides[0]])
+                    : tensor.slice(i).toVector();
+        }
+
+        @Override
+        public int size() {
+            return tensor.shape[0];
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package linear;
+
+public interface DoubleKernels {
+    int TRANSPOSE_TILE = 32;
+
+    void add(double[] acc, double[] operand);
+
+    void subtract(double[] acc, double[] operand);
+
+    void multiply(double[] acc, double[] operand);
+
+    void divide(double[] acc, double[] operand);
+
+    void scale(double[] acc, double factor);
+
+    double dot(double[] lhs, int lhsFrom, double[] rhs, int rhsFrom, int length);
+
+    void transpose(double[] matrix, int rows, int cols, double[] result, int rowFrom, int rowTo);
+
+    default double dot(final double[] lhs, final double[] rhs) {
+        return dot(lhs, 0, rhs, 0, lhs.length);
+    }
+
+    default void transpose(final double[] matrix, final int rows, final int cols, final double[] result) {
+        transpose(matrix, rows, cols, result, 0, rows);
+    }
+
+    default void multiplyVector(final double[] matrix, final int rows, final int cols, final double[] vector, final double[] result) {
+        for (int i = 0; i < rows; i++) {
+            result[i] = dot(matrix, i * cols, vector, 0, cols);
+        }
+    }
+
+    default boolean compWise(final DoubleOperatorOverload oper, final double[] acc, final double[] operand) {
+        if (oper == DoubleOperatorOverload.ADD) {
+            add(acc, operand);
+        } else if (oper == DoubleOperatorOverload.SUBTRACT) {
+            subtract(acc, operand);
+        } else if (oper == DoubleOperatorOverload.MULTIPLY) {
+            multiply(acc, operand);
+        } else if (oper == DoubleOperatorOverload.DIVIDE) {
+            divide(acc, operand);
+        } else {
+            return false;
+        }
+        return true;
+    }
+
+    static DoubleKernels scalar() {
+        return ScalarKernels.INSTANCE;
+    }
+
+    static DoubleKernels get() {
+        return Holder.INSTANCE;
+    }
+
+    final class Holder {
+        private static final DoubleKernels INSTANCE = load();
+
+        private Holder() {
+        }
+
+        private static DoubleKernels load() {
+            if (!Boolean.parseBoolean(System.getProperty("linear.simd", "true"))
+                    || ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+                return scalar();
+            }
+            try {
+                return (DoubleKernels) Class.forName("linear.SimdKernels").getDeclaredConstructor().newInstance();
+            } catch (final ReflectiveOperationException | LinkageError e) {
+                return scalar();
+            }
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package linear;
+
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleUnaryOperator;
+
+public record DoubleOperatorOverload(DoubleUnaryOperator unary, DoubleBinaryOperator binary) {
+    public static final DoubleOperatorOverload ADD = new DoubleOperatorOverload(a -> a, Double::sum);
+    public static final DoubleOperatorOverload SUBTRACT = new DoubleOperatorOverload(a -> -a, (a, b) -> a - b);
+    public static final DoubleOperatorOverload MULTIPLY = new DoubleOperatorOverload(a -> a, (a, b) -> a * b);
+    public static final DoubleOperatorOverload DIVIDE = new DoubleOperatorOverload(a -> 1 / a, (a, b) -> a / b);
+
+    public static DoubleOperatorOverload of(final OperatorOverload<Double> oper) {
+        return new DoubleOperatorOverload(
+                oper.unary() == null ? null : a -> oper.unary().apply(a),
+                oper.binary() == null ? null : (a, b) -> oper.binary().apply(a, b)
+        );
+    }
+
+    public OperatorOverload<Double> boxed() {
+        return new OperatorOverload<>(
+                unary == null ? null : unary::applyAsDouble,
+                binary == null ? null : binary::applyAsDouble
+        );
+    }
+}
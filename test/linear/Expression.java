@@ -0,0 +1,155 @@
+package linear;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+public sealed interface Expression {
+    int BLOCK = 1024;
+
+    int[] shape();
+
+    int depth();
+
+    void fill(int from, int to, double[] target, int base, double[][] scratch, int level);
+
+    static Expression of(final Tensor<? extends Number> tensor) {
+        final DenseTensor dense = DenseTensor.of(tensor);
+        return new Leaf(dense.flat(), dense.shape());
+    }
+
+    static Expression compWise(final DoubleOperatorOverload oper, final List<Expression> operands) {
+        if (operands.isEmpty()) {
+            throw new IllegalArgumentException("Expected at least one operand");
+        }
+        final int[] shape = operands.getFirst().shape();
+        for (final Expression operand : operands) {
+            if (!Arrays.equals(shape, operand.shape())) {
+                throw new IllegalArgumentException("Cannot combine shapes " + Arrays.toString(shape) + " and " + Arrays.toString(operand.shape()));
+            }
+        }
+        return new CompWise(oper, List.copyOf(operands), shape);
+    }
+
+    static Expression scale(final DoubleOperatorOverload oper, final Expression operand, final double... scalars) {
+        if (scalars.length == 0) {
+            return operand;
+        }
+        double factor = scalars[0];
+        for (int i = 1; i < scalars.length; i++) {
+            factor = oper.binary().applyAsDouble(factor, scalars[i]);
+        }
+        return new Scale(oper, operand, factor);
+    }
+
+    default Expression add(final Expression... others) {
+        return compWise(DoubleOperatorOverload.ADD, others);
+    }
+
+    default Expression subtract(final Expression... others) {
+        return compWise(DoubleOperatorOverload.SUBTRACT, others);
+    }
+
+    default Expression multiply(final Expression... others) {
+        return compWise(DoubleOperatorOverload.MULTIPLY, others);
+    }
+
+    default Expression divide(final Expression... others) {
+        return compWise(DoubleOperatorOverload.DIVIDE, others);
+    }
+
+    default Expression scale(final double... scalars) {
+        return scale(DoubleOperatorOverload.MULTIPLY, this, scalars);
+    }
+
+    private Expression compWise(final DoubleOperatorOverload oper, final Expression... others) {
+        return compWise(oper, Stream.concat(Stream.of(this), Arrays.stream(others)).toList());
+    }
+
+    default DenseTensor evaluate() {
+        final int[] shape = shape();
+        final double[] result = new double[DenseTensor.size(shape)];
+        final double[][] scratch = new double[depth()][Math.min(BLOCK, result.length)];
+        for (int from = 0; from < result.length; from += BLOCK) {
+            final int to = Math.min(from + BLOCK, result.length);
+            fill(from, to, result, from, scratch, 0);
+        }
+        return new DenseTensor(result, shape);
+    }
+
+    record Leaf(double[] data, int[] shape) implements Expression {
+        @Override
+        public int[] shape() {
+            return shape.clone();
+        }
+
+        @Override
+        public int depth() {
+            return 0;
+        }
+
+        @Override
+        public void fill(final int from, final int to, final double[] target, final int base, final double[][] scratch, final int level) {
+            System.arraycopy(data, from, target, base, to - from);
+        }
+    }
+
+    record CompWise(DoubleOperatorOverload oper, List<Expression> operands, int[] shape) implements Expression {
+        @Override
+        public int[] shape() {
+            return shape.clone();
+        }
+
+        @Override
+        public int depth() {
+            return 1 + operands.stream().mapToInt(Expression::depth).max().orElse(0);
+        }
+
+        @Override
+        public void fill(final int from, final int to, final double[] target, final int base, final double[][] scratch, final int level) {
+            final int length = to - from;
+            operands.getFirst().fill(from, to, target, base, scratch, level + 1);
+            if (operands.size() == 1) {
+                for (int i = 0; i < length; i++) {
+                    target[base + i] = oper.unary().applyAsDouble(target[base + i]);
+                }
+                return;
+            }
+            for (final Expression operand : operands.subList(1, operands.size())) {
+                final double[] values;
+                final int offset;
+                if (operand instanceof final Leaf leaf) {
+                    values = leaf.data;
+                    offset = from;
+                } else {
+                    values = scratch[level];
+                    offset = 0;
+                    operand.fill(from, to, values, 0, scratch, level + 1);
+                }
+                for (int i = 0; i < length; i++) {
+                    target[base + i] = oper.binary().applyAsDouble(target[base + i], values[offset + i]);
+                }
+            }
+        }
+    }
+
+    record Scale(DoubleOperatorOverload oper, Expression operand, double factor) implements Expression {
+        @Override
+        public int[] shape() {
+            return operand.shape();
+        }
+
+        @Override
+        public int depth() {
+            return 1 + operand.depth();
+        }
+
+        @Override
+        public void fill(final int from, final int to, final double[] target, final int base, final double[][] scratch, final int level) {
+            operand.fill(from, to, target, base, scratch, level + 1);
+            for (int i = base; i < base + to - from; i++) {
+                target[i] = oper.binary().applyAsDouble(target[i], factor);
+            }
+        }
+    }
+}
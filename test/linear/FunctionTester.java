@@ -2,27 +2,92 @@ package linear;
 
 import base.Annotated;
 import base.ClojureCall;
+import base.Context;
+import base.Metrics;
 import clojure.lang.IFn;
 import org.junit.Assert;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Objects;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
 public record FunctionTester<T extends Number>(Function<List<? extends Tensor<T>>, ? extends Tensor<T>> expected, IFn actual, String name) {
     public void test(final List<Tensor<T>> objects) {
-        final Tensor<T> expected = this.expected.apply(objects);
-        final List<Annotated<Object>> clojureAnnotations = objects.stream().map(Tensor::toClojure).toList();
-        final String context = clojureAnnotations.stream().map(Annotated::context).collect(Collectors.joining(" ", "(" + name + " ", ")"));
-        final Object[] clojureObjects = clojureAnnotations.stream().map(Annotated::value).toArray();
-        final Tensor<?> actual = Tensor.fromClojure(ClojureCall.nullable(this.actual, context, clojureObjects), context);
-        Assert.assertEquals(context, expected, actual);
+        test(objects, Tolerance.EXACT);
+    }
+
+    @SuppressWarnings("try")
+    public void test(final List<Tensor<T>> objects, final Tolerance tolerance) {
+        try (final Metrics.Scope scope = Metrics.scope(name, () -> shape(objects))) {
+            Metrics.Span span = Metrics.start();
+            final Tensor<T> expected = this.expected.apply(objects);
+            span = span.lap("expected");
+            final List<Annotated<Object>> clojureAnnotations = objects.stream().map(Tensor::toClojure).toList();
+            final Context context = Context.join(clojureAnnotations.stream().map(Annotated::context).toList(), "(" + name + " ", ")");
+            final Object[] clojureObjects = clojureAnnotations.stream().map(Annotated::value).toArray();
+            span.stop(name, "toClojure");
+            final Object result = ClojureCall.nullable(this.actual, context, clojureObjects);
+            span = Metrics.start();
+            // Results are wrapped lazily, so most unmarshalling happens inside equals.
+            final Tensor<?> actual = Tensor.fromClojure(result, context);
+            if (tolerance.equals(Tolerance.EXACT)) {
+                final boolean equal = Objects.equals(expected, actual);
+                span.stop(name, "fromClojure");
+                if (!equal) {
+                    Assert.assertEquals(context.get(), expected, actual);
+                }
+            } else {
+                try {
+                    tolerance.assertMatches(context.get(), expected, actual);
+                } catch (final IllegalArgumentException e) {
+                    Assert.fail(context.get() + ": expected " + expected + ", found " + actual);
+                }
+                span.stop(name, "fromClojure");
+            }
+        }
+    }
+
+    public void testAll(final List<? extends List<Tensor<T>>> cases) {
+        final List<Context> contexts = new ArrayList<>(cases.size());
+        final Object[][] args = new Object[cases.size()][];
+        for (int i = 0; i < args.length; i++) {
+            final List<Annotated<Object>> clojureAnnotations = cases.get(i).stream().map(Tensor::toClojure).toList();
+            contexts.add(Context.join(clojureAnnotations.stream().map(Annotated::context).toList(), "(" + name + " ", ")"));
+            args[i] = clojureAnnotations.stream().map(Annotated::value).toArray();
+        }
+        final Object[] results = ClojureCall.nullable(actual, contexts::get, args);
+        for (int i = 0; i < args.length; i++) {
+            final Tensor<T> expected = this.expected.apply(cases.get(i));
+            final Tensor<?> actual = Tensor.fromClojure(results[i], contexts.get(i));
+            if (!Objects.equals(expected, actual)) {
+                Assert.assertEquals(contexts.get(i).get(), expected, actual);
+            }
+        }
     }
 
     public void expectThrow(final List<Tensor<T>> objects) {
         final List<Annotated<Object>> clojureAnnotations = objects.stream().map(Tensor::toClojure).toList();
-        final String context = clojureAnnotations.stream().map(Annotated::context).collect(Collectors.joining(" ", "(" + name + " ", ")"));
+        final Context context = Context.join(clojureAnnotations.stream().map(Annotated::context).toList(), "(" + name + " ", ")");
         final Object[] clojureObjects = clojureAnnotations.stream().map(Annotated::value).toArray();
         ClojureCall.expectThrow(this.actual, context, AssertionError.class, clojureObjects);
     }
+
+    static String shape(final List<? extends Tensor<?>> tensors) {
+        return tensors.stream().map(FunctionTester::shape).collect(Collectors.joining(" "));
+    }
+
+    private static String shape(final Tensor<?> tensor) {
+        final int[] shape;
+        if (tensor instanceof final DenseTensor dense) {
+            shape = dense.shape();
+        } else if (tensor instanceof final SparseTensor sparse) {
+            shape = sparse.shape();
+        } else {
+            shape = DenseTensor.shapeOf(tensor);
+        }
+        return shape.length == 0 ? "scalar" : Arrays.stream(shape).mapToObj(Integer::toString).collect(Collectors.joining("x"));
+    }
 }
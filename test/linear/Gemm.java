@@ -0,0 +1,136 @@
+package linear;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+public final class Gemm {
+    private static final int ROW_BLOCK = 64;
+    private static final int INNER_BLOCK = 128;
+    private static final int COLUMN_BLOCK = 256;
+    private static final long SEQUENTIAL_THRESHOLD = 1L << 18;
+
+    private Gemm() {
+    }
+
+    public static DenseTensor multiply(final DenseTensor first, final DenseTensor second) {
+        return multiply(first, second, ForkJoinPool.commonPool());
+    }
+
+    public static DenseTensor multiply(final DenseTensor first, final DenseTensor second, final ForkJoinPool pool) {
+        final int rows = first.dim(0);
+        final int inner = first.dim(1);
+        final int cols = second.dim(1);
+        if (second.dim(0) != inner) {
+            throw new IllegalArgumentException("Cannot multiply " + rows + "x" + inner + " by " + second.dim(0) + "x" + cols);
+        }
+        final Task task = new Task(first.flat(), second.flat(), new double[rows * cols], inner, cols, 0, rows);
+        if ((long) rows * inner * cols <= SEQUENTIAL_THRESHOLD) {
+            task.compute();
+        } else {
+            pool.invoke(task);
+        }
+        return new DenseTensor(task.result, rows, cols);
+    }
+
+    // Every result cell accumulates its products in increasing k, exactly as the
+    // sequential dot product does, so tiling never changes the rounding.
+    private static void kernel(final double[] a, final double[] b, final double[] c, final int inner, final int cols, final int rowFrom, final int rowTo) {
+        for (int j0 = 0; j0 < cols; j0 += COLUMN_BLOCK) {
+            final int j1 = Math.min(j0 + COLUMN_BLOCK, cols);
+            for (int k0 = 0; k0 < inner; k0 += INNER_BLOCK) {
+                final int k1 = Math.min(k0 + INNER_BLOCK, inner);
+                int i = rowFrom;
+                for (; i + 4 <= rowTo; i += 4) {
+                    kernel4(a, b, c, inner, cols, i, j0, j1, k0, k1);
+                }
+                for (; i < rowTo; i++) {
+                    kernel1(a, b, c, inner, cols, i, j0, j1, k0, k1);
+                }
+            }
+        }
+    }
+
+    private static void kernel1(final double[] a, final double[] b, final double[] c, final int inner, final int cols, final int i, final int j0, final int j1, final int k0, final int k1) {
+        final int cRow = i * cols;
+        for (int k = k0; k < k1; k++) {
+            final double aik = a[i * inner + k];
+            final int bRow = k * cols;
+            if (k == 0) {
+                for (int j = j0; j < j1; j++) {
+                    c[cRow + j] = aik * b[bRow + j];
+                }
+            } else {
+                for (int j = j0; j < j1; j++) {
+                    c[cRow + j] += aik * b[bRow + j];
+                }
+            }
+        }
+    }
+
+    private static void kernel4(final double[] a, final double[] b, final double[] c, final int inner, final int cols, final int i, final int j0, final int j1, final int k0, final int k1) {
+        final int c0 = i * cols;
+        final int c1 = c0 + cols;
+        final int c2 = c1 + cols;
+        final int c3 = c2 + cols;
+        for (int k = k0; k < k1; k++) {
+            final double a0 = a[i * inner + k];
+            final double a1 = a[(i + 1) * inner + k];
+            final double a2 = a[(i + 2) * inner + k];
+            final double a3 = a[(i + 3) * inner + k];
+            final int bRow = k * cols;
+            if (k == 0) {
+                for (int j = j0; j < j1; j++) {
+                    final double bkj = b[bRow + j];
+                    c[c0 + j] = a0 * bkj;
+                    c[c1 + j] = a1 * bkj;
+                    c[c2 + j] = a2 * bkj;
+                    c[c3 + j] = a3 * bkj;
+                }
+            } else {
+                for (int j = j0; j < j1; j++) {
+                    final double bkj = b[bRow + j];
+                    c[c0 + j] += a0 * bkj;
+                    c[c1 + j] += a1 * bkj;
+                    c[c2 + j] += a2 * bkj;
+                    c[c3 + j] += a3 * bkj;
+                }
+            }
+        }
+    }
+
+    private static final class Task extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final double[] a;
+        private final double[] b;
+        private final double[] result;
+        private final int inner;
+        private final int cols;
+        private final int rowFrom;
+        private final int rowTo;
+
+        private Task(final double[] a, final double[] b, final double[] result, final int inner, final int cols, final int rowFrom, final int rowTo) {
+            this.a = a;
+            this.b = b;
+            this.result = result;
+            this.inner = inner;
+            this.cols = cols;
+            this.rowFrom = rowFrom;
+            this.rowTo = rowTo;
+        }
+
+        @Override
+        protected void compute() {
+            final int rows = rowTo - rowFrom;
+            if (rows <= ROW_BLOCK || (long) rows * inner * cols <= SEQUENTIAL_THRESHOLD) {
+                kernel(a, b, result, inner, cols, rowFrom, rowTo);
+            } else {
+                final int mid = rowFrom + (rows / 2 + ROW_BLOCK - 1) / ROW_BLOCK * ROW_BLOCK;
+                invokeAll(
+                        new Task(a, b, result, inner, cols, rowFrom, mid),
+                        new Task(a, b, result, inner, cols, mid, rowTo)
+                );
+            }
+        }
+    }
+}
@@ -1,16 +1,32 @@
 package linear;
 
+import base.Annotated;
 import base.ClojureCall;
 import base.ClojureNamespace;
+import base.Metrics;
+import base.ParallelCases;
 import org.junit.Assert;
 import org.junit.Test;
 
 import clojure.java.api.Clojure;
+import clojure.lang.AFn;
 import clojure.lang.IFn;
+import clojure.lang.Keyword;
+import clojure.lang.RT;
+import clojure.lang.Var;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
 import java.util.function.Supplier;
+import java.util.random.RandomGenerator;
+import java.util.stream.DoubleStream;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
@@ -18,10 +34,10 @@ public class LinearTest {
     private static final ClojureNamespace linearNs = ClojureNamespace.load("linear");
     private static final ClojureNamespace clojureCoreNs = ClojureNamespace.require("clojure.core");
 
-    private static final OperatorOverload<Double> addOp = new OperatorOverload<>(a -> a, Double::sum);
-    private static final OperatorOverload<Double> subtractOp = new OperatorOverload<>(a -> -a, (a, b) -> a - b);
-    private static final OperatorOverload<Double> multiplyOp = new OperatorOverload<>(a -> a, (a, b) -> a * b);
-    private static final OperatorOverload<Double> divideOp = new OperatorOverload<>(a -> 1 / a, (a, b) -> a / b);
+    private static final DoubleOperatorOverload addOp = DoubleOperatorOverload.ADD;
+    private static final DoubleOperatorOverload subtractOp = DoubleOperatorOverload.SUBTRACT;
+    private static final DoubleOperatorOverload multiplyOp = DoubleOperatorOverload.MULTIPLY;
+    private static final DoubleOperatorOverload divideOp = DoubleOperatorOverload.DIVIDE;
 
     private static final FunctionTester<Double> vAdd = new FunctionTester<>(
             lst -> Solution.vectorCompWise(lst, addOp),
@@ -87,62 +103,87 @@ public class LinearTest {
     private static final Random rng = new Random(1043751861432829521L);
 
     private static double generateDouble() {
-        return rng.nextLong(-10_000, 10_000) / 100.0;
+        return generateDouble(rng);
     }
 
-    private static double generateNonZeroDouble() {
+    private static double generateDouble(final RandomGenerator random) {
+        return random.nextLong(-10_000, 10_000) / 100.0;
+    }
+
+    private static double generateNonZeroDouble(final RandomGenerator random) {
         double value;
         do {
-            value = rng.nextLong(-10_000, 10_000) / 100.0;
+            value = random.nextLong(-10_000, 10_000) / 100.0;
         } while (value == 0);
         return value;
     }
 
-    private static Supplier<Tensor<Double>> scalarGen() {
-        return () -> Tensor.generate(LinearTest::generateDouble);
+    private interface Generator {
+        Tensor<Double> generate(Supplier<Double> rng, int... shape);
+    }
+
+    private static final Generator boxed = Tensor::generate;
+    private static final Generator dense = (rng, shape) -> shape.length == 0
+            ? Tensor.generate(rng)
+            : DenseTensor.generate(rng::get, shape);
+
+    private static Supplier<Tensor<Double>> scalarGen(final Generator gen, final Random random) {
+        return () -> gen.generate(() -> generateDouble(random));
     }
 
-    private static Supplier<Tensor<Double>> vectorGen(int dim) {
-        return () -> Tensor.generate(LinearTest::generateDouble, dim);
+    private static Supplier<Tensor<Double>> vectorGen(final Generator gen, final Random random, int dim) {
+        return () -> gen.generate(() -> generateDouble(random), dim);
     }
 
-    private static Supplier<Tensor<Double>> vectorGenNonZero(int dim) {
-        return () -> Tensor.generate(LinearTest::generateNonZeroDouble, dim);
+    private static Supplier<Tensor<Double>> vectorGenNonZero(final Generator gen, final Random random, int dim) {
+        return () -> gen.generate(() -> generateNonZeroDouble(random), dim);
     }
 
-    private static Supplier<Tensor<Double>> matrixGen(int dim1, int dim2) {
-        return () -> Tensor.generate(LinearTest::generateDouble, dim1, dim2);
+    private static Supplier<Tensor<Double>> matrixGen(final Generator gen, final Random random, int dim1, int dim2) {
+        return () -> gen.generate(() -> generateDouble(random), dim1, dim2);
     }
 
-    private static Supplier<Tensor<Double>> matrixGenNonZero(int dim1, int dim2) {
-        return () -> Tensor.generate(LinearTest::generateNonZeroDouble, dim1, dim2);
+    private static Supplier<Tensor<Double>> matrixGenNonZero(final Generator gen, final Random random, int dim1, int dim2) {
+        return () -> gen.generate(() -> generateNonZeroDouble(random), dim1, dim2);
     }
 
     private static void testRandom(int count) {
+        testRandom(count, boxed);
+    }
+
+    private static void testRandom(int count, final Generator gen) {
+        final ParallelCases cases = new ParallelCases(rng.nextLong());
         for (int dim = 1; dim <= 10; dim++) {
-            vAdd.test(Stream.generate(vectorGen(dim)).limit(count).toList());
-            vSubtract.test(Stream.generate(vectorGen(dim)).limit(count).toList());
-            vMultiply.test(Stream.generate(vectorGen(dim)).limit(count).toList());
-            vDivide.test(Stream.generate(vectorGenNonZero(dim)).limit(count).toList());
-            inner.test(Stream.generate(vectorGen(dim)).limit(count).toList());
-            vTimesS.test(Stream.concat(Stream.of(vectorGen(dim).get()), Stream.generate(scalarGen()).limit(count - 1)).toList());
+            final int d = dim;
+            final String shape = "count=" + count + ", dim=" + dim;
+            cases.add("v+ " + shape, r -> vAdd.test(Stream.generate(vectorGen(gen, r, d)).limit(count).toList()));
+            cases.add("v- " + shape, r -> vSubtract.test(Stream.generate(vectorGen(gen, r, d)).limit(count).toList()));
+            cases.add("v* " + shape, r -> vMultiply.test(Stream.generate(vectorGen(gen, r, d)).limit(count).toList()));
+            cases.add("vd " + shape, r -> vDivide.test(Stream.generate(vectorGenNonZero(gen, r, d)).limit(count).toList()));
+            cases.add("dot " + shape, r -> inner.test(Stream.generate(vectorGen(gen, r, d)).limit(count).toList()));
+            cases.add("v*s " + shape, r -> vTimesS.test(Stream.concat(Stream.of(vectorGen(gen, r, d).get()), Stream.generate(scalarGen(gen, r)).limit(count - 1)).toList()));
         }
 
         for (int complexity = 1; complexity <= 10; complexity++) {
             for (int dim1 = 1; dim1 <= complexity; dim1++) {
-                final int dim2 = 1 + complexity - dim1;
-                mAdd.test(Stream.generate(matrixGen(dim1, dim2)).limit(count).toList());
-                mSubtract.test(Stream.generate(matrixGen(dim1, dim2)).limit(count).toList());
-                mMultiply.test(Stream.generate(matrixGen(dim1, dim2)).limit(count).toList());
-                mDivide.test(Stream.generate(matrixGenNonZero(dim1, dim2)).limit(count).toList());
-                mTimesS.test(Stream.concat(Stream.of(matrixGen(dim1, dim2).get()), Stream.generate(scalarGen()).limit(count - 1)).toList());
-                mTimesV.test(List.of(matrixGen(dim1, dim2).get(), vectorGen(dim2).get()));
-                transpose.test(List.of(matrixGen(dim1, dim2).get()));
+                final int d1 = dim1;
+                final int d2 = 1 + complexity - dim1;
+                final String shape = "count=" + count + ", shape=" + d1 + "x" + d2;
+                cases.add("m+ " + shape, r -> mAdd.test(Stream.generate(matrixGen(gen, r, d1, d2)).limit(count).toList()));
+                cases.add("m- " + shape, r -> mSubtract.test(Stream.generate(matrixGen(gen, r, d1, d2)).limit(count).toList()));
+                cases.add("m* " + shape, r -> mMultiply.test(Stream.generate(matrixGen(gen, r, d1, d2)).limit(count).toList()));
+                cases.add("md " + shape, r -> mDivide.test(Stream.generate(matrixGenNonZero(gen, r, d1, d2)).limit(count).toList()));
+                cases.add("m*s " + shape, r -> mTimesS.test(Stream.concat(Stream.of(matrixGen(gen, r, d1, d2).get()), Stream.generate(scalarGen(gen, r)).limit(count - 1)).toList()));
+                cases.add("m*v " + shape, r -> mTimesV.test(List.of(matrixGen(gen, r, d1, d2).get(), vectorGen(gen, r, d2).get())));
+                cases.add("transpose " + shape, r -> transpose.test(List.of(matrixGen(gen, r, d1, d2).get())));
             }
             final int maxDim = complexity;
-            final int[] dims = IntStream.generate(() -> rng.nextInt(1, maxDim + 1)).limit(count + 1).toArray();
-            mTimesM.test(IntStream.range(0, count).mapToObj(i -> matrixGen(dims[i], dims[i + 1]).get()).toList());
+            cases.add("m*m count=" + count + ", maxDim=" + maxDim, r -> {
+                final int[] dims = IntStream.generate(() -> r.nextInt(1, maxDim + 1)).limit(count + 1).toArray();
+                mTimesM.test(IntStream.range(0, count).mapToObj(i -> matrixGen(gen, r, dims[i], dims[i + 1]).get()).toList());
+            });
         }
+        cases.run();
     }
 
     @Test
@@ -159,6 +200,709 @@ public class LinearTest {
         testRandom(5);
     }
 
+    @Test
+    public void testDense() {
+        for (int count = 1; count <= 5; count++) {
+            testRandom(count, dense);
+        }
+        for (int count = 1; count <= 5; count++) {
+            final int[] dims = IntStream.generate(() -> rng.nextInt(1, 8)).limit(count + 1).toArray();
+            final List<Tensor<Double>> boxedMatrices = IntStream.range(0, count)
+                    .mapToObj(i -> Tensor.generate(LinearTest::generateDouble, dims[i], dims[i + 1]))
+                    .toList();
+            final List<Tensor<Double>> denseMatrices = boxedMatrices.stream().<Tensor<Double>>map(DenseTensor::of).toList();
+            Assert.assertEquals(Solution.compose(boxedMatrices, addOp.boxed(), multiplyOp.boxed()), Solution.compose(denseMatrices, addOp.boxed(), multiplyOp.boxed()));
+            Assert.assertEquals(Solution.transpose(boxedMatrices.subList(0, 1)), Solution.transpose(denseMatrices.subList(0, 1)));
+            Assert.assertEquals(Solution.matrixCompWise(boxedMatrices.subList(0, 1), subtractOp.boxed()), Solution.matrixCompWise(denseMatrices.subList(0, 1), subtractOp.boxed()));
+        }
+    }
+
+    @Test
+    public void testPrimitive() {
+        for (int count = 1; count <= 4; count++) {
+            for (int dim = 1; dim <= 6; dim++) {
+                final List<Tensor<Double>> vectors = Stream.generate(vectorGenNonZero(boxed, rng, dim)).limit(count).toList();
+                final List<Tensor<Double>> matrices = Stream.generate(matrixGenNonZero(boxed, rng, dim, count)).limit(count).toList();
+                final List<Tensor<Double>> scaled = Stream.concat(Stream.of(matrices.getFirst()), Stream.generate(scalarGen(boxed, rng)).limit(count)).toList();
+                for (final DoubleOperatorOverload op : List.of(addOp, subtractOp, multiplyOp, divideOp)) {
+                    Assert.assertEquals(Solution.vectorCompWise(vectors, op.boxed()), Solution.vectorCompWise(vectors, op));
+                    Assert.assertEquals(Solution.matrixCompWise(matrices, op.boxed()), Solution.matrixCompWise(matrices, op));
+                }
+                Assert.assertEquals(Solution.inner(vectors, addOp.boxed(), multiplyOp.boxed()), Solution.inner(vectors, addOp, multiplyOp));
+                Assert.assertEquals(Solution.matrixScale(scaled, multiplyOp.boxed()), Solution.matrixScale(scaled, multiplyOp));
+                final List<Tensor<Double>> product = List.of(matrices.getFirst(), vectorGen(boxed, rng, count).get());
+                Assert.assertEquals(Solution.transposeMultiplyV(product, addOp.boxed(), multiplyOp.boxed()), Solution.transposeMultiplyV(product, addOp, multiplyOp));
+
+                final int rows = dim;
+                final int cols = count;
+                final List<Tensor<Long>> longs = Stream.generate(() -> Tensor.generate(() -> rng.nextLong(-1000, 1000), rows, cols)).limit(count).toList();
+                for (final LongOperatorOverload op : List.of(LongOperatorOverload.ADD, LongOperatorOverload.SUBTRACT, LongOperatorOverload.MULTIPLY)) {
+                    Assert.assertEquals(Solution.matrixCompWise(longs, op.boxed()), Solution.matrixCompWise(longs, op));
+                }
+                final List<Tensor<Long>> longScaled = Stream.concat(Stream.of(longs.getFirst()), Stream.generate(() -> Tensor.generate(() -> rng.nextLong(-10, 10))).limit(count)).toList();
+                Assert.assertEquals(Solution.matrixScale(longScaled, LongOperatorOverload.MULTIPLY.boxed()), Solution.matrixScale(longScaled, LongOperatorOverload.MULTIPLY));
+            }
+        }
+    }
+
+    @Test
+    public void testMixed() {
+        final IFn apply = clojureCoreNs.var("apply");
+        final IFn mapv = clojureCoreNs.var("mapv");
+        final IFn plus = clojureCoreNs.var("+");
+        final Map<String, String> ops = Map.of("v+", "+", "v-", "-", "v*", "*", "vd", "/");
+        final Object ratio = Clojure.read("1/3");
+        final Object bigInt = Clojure.read("7N");
+        final double[] large = DoubleStream.generate(() -> generateNonZeroDouble(rng)).limit(20_000).toArray();
+        final List<List<Object>> cases = List.of(
+                List.of(RT.vector(1.0, 2.0, 3L), RT.vector(0.5, 0.25, 0.5)),
+                List.of(RT.vector(1.0, 2.0, 3.0), RT.vector(1.0, 2L, 3.0)),
+                List.of(RT.vector(1.0, 2.0, 3.0), RT.vector(4.0, 5.0, 6.0), RT.vector(1.0, 1.0, ratio)),
+                List.of(RT.vector(bigInt, 2.0, 4.0)),
+                List.of(RT.vector(2.0, 4L, ratio)),
+                List.of(RT.vector(Arrays.stream(large).boxed().toArray()), RT.vector(Arrays.stream(large).mapToObj(x -> x == large[15_000] ? (Object) 3L : x).toArray()))
+        );
+        Var.pushThreadBindings(RT.map(linearNs.var("*parallel-threshold*"), 4));
+        try {
+            for (final List<Object> vecs : cases) {
+                for (final Map.Entry<String, String> op : ops.entrySet()) {
+                    final Object expected = apply.invoke(mapv, clojureCoreNs.var(op.getValue()), vecs);
+                    final Object actual = apply.invoke(linearNs.var(op.getKey()), vecs);
+                    Assert.assertEquals(op.getKey(), expected, actual);
+                    Assert.assertEquals(op.getKey(), classes(expected), classes(actual));
+                }
+                final Object products = apply.invoke(mapv, clojureCoreNs.var("*"), vecs);
+                Assert.assertEquals(apply.invoke(plus, products), apply.invoke(inner.actual(), vecs));
+                final List<Object> matrices = vecs.stream().map(v -> (Object) RT.vector(v, v)).toList();
+                final Object sum = apply.invoke(mapv, plus, vecs);
+                Assert.assertEquals(RT.vector(sum, sum), apply.invoke(mAdd.actual(), matrices));
+            }
+        } finally {
+            Var.popThreadBindings();
+        }
+    }
+
+    @Test
+    public void testGemm() {
+        final OperatorOverload<Double> boxedAdd = new OperatorOverload<>(a -> a, Double::sum);
+        final OperatorOverload<Double> boxedMultiply = new OperatorOverload<>(a -> a, (a, b) -> a * b);
+        for (final int[] dims : List.of(new int[]{1, 1, 1}, new int[]{3, 7, 2, 5}, new int[]{130, 140, 300}, new int[]{65, 257, 129})) {
+            final List<Tensor<Double>> matrices = IntStream.range(0, dims.length - 1)
+                    .mapToObj(i -> Tensor.generate(LinearTest::generateDouble, dims[i], dims[i + 1]))
+                    .toList();
+            Assert.assertEquals(
+                    Solution.compose(matrices, boxedAdd, boxedMultiply),
+                    Solution.compose(matrices, addOp, multiplyOp)
+            );
+        }
+    }
+
+    @Test
+    public void testChainPlan() {
+        final IFn plan = linearNs.var("m*m-plan");
+        final IFn get = clojureCoreNs.var("get");
+        for (final int[] dims : List.of(new int[]{1000, 2, 1000, 2}, new int[]{10, 30, 5, 60}, new int[]{3, 3}, new int[]{5, 1, 7, 2, 9, 4})) {
+            final List<Tensor<Double>> matrices = IntStream.range(0, dims.length - 1)
+                    .mapToObj(i -> Tensor.generate(LinearTest::generateDouble, dims[i], dims[i + 1]))
+                    .toList();
+            final MatrixChain expected = Solution.composePlan(matrices);
+            final Object actual = ClojureCall.nonNull(plan, "(m*m-plan ...)", matrices.stream().map(Tensor::toClojure).map(Annotated::value).toArray());
+            Assert.assertEquals(expected.toString(), expected.flops(), ((Number) get.invoke(actual, Clojure.read(":flops"))).longValue());
+            Assert.assertTrue(expected.toString(), expected.flops() <= expected.leftToRightFlops());
+        }
+        Assert.assertEquals("(0 (1 2)) ~16000 flops", MatrixChain.plan(1000, 2, 1000, 2).toString());
+    }
+
+    @Test
+    public void testExpression() {
+        final IFn evaluate = linearNs.var("evaluate");
+        final IFn add = linearNs.var("e+");
+        final IFn multiply = linearNs.var("e*");
+        final IFn scale = linearNs.var("e*s");
+        final FunctionTester<Double> fused = new FunctionTester<>(
+                lst -> Expression.of(lst.get(0))
+                        .multiply(Expression.of(lst.get(1)))
+                        .add(Expression.of(lst.get(2)).scale(((Scalar<Double>) lst.get(3)).value()))
+                        .evaluate(),
+                new AFn() {
+                    @Override
+                    public Object invoke(final Object a, final Object b, final Object c, final Object k) {
+                        return evaluate.invoke(add.invoke(multiply.invoke(a, b), scale.invoke(c, k)));
+                    }
+                },
+                "fused"
+        );
+        for (final int[] shape : List.of(new int[]{1}, new int[]{7}, new int[]{3000}, new int[]{3, 4}, new int[]{50, 70})) {
+            final List<Tensor<Double>> operands = Stream.concat(
+                    Stream.generate(() -> Tensor.generate(LinearTest::generateDouble, shape)).limit(3),
+                    Stream.of(Tensor.generate(LinearTest::generateDouble))
+            ).toList();
+            final Vector<Double> product = Solution.matrixCompWise(operands.subList(0, 2), multiplyOp);
+            final Vector<Double> scaled = Solution.matrixScale(operands.subList(2, 4), multiplyOp);
+            Assert.assertEquals(Solution.matrixCompWise(List.of(product, scaled), addOp), fused.expected().apply(operands));
+            fused.test(operands);
+        }
+    }
+
+    @Test
+    public void testStreaming() throws IOException {
+        final Path dir = Files.createTempDirectory("linear-streaming");
+        try {
+            for (final int dim : new int[]{1, 7, 64, 1000}) {
+                final List<DenseTensor> vectors = Stream.generate(() -> DenseTensor.generate(() -> generateNonZeroDouble(rng), dim)).limit(3).toList();
+                for (final DoubleOperatorOverload op : List.of(addOp, subtractOp, multiplyOp, divideOp)) {
+                    final DoubleStream.Builder result = DoubleStream.builder();
+                    final long written = Streaming.compWise(sources(vectors), op, Streaming.Sink.to(result), 16);
+                    Assert.assertEquals(dim, written);
+                    Assert.assertEquals(Solution.vectorCompWise(vectors, op), new DenseTensor(result.build().toArray(), dim));
+                }
+                Assert.assertEquals(Solution.inner(vectors, addOp, multiplyOp).value(), Streaming.inner(sources(vectors), addOp, multiplyOp, 16), 0.0);
+
+                final List<Path> files = new ArrayList<>();
+                for (final DenseTensor vector : vectors) {
+                    final Path file = Files.createTempFile(dir, "vector", ".bin");
+                    try (final Streaming.Sink sink = Streaming.Sink.to(file)) {
+                        Streaming.compWise(sources(List.of(vector)), addOp, sink, 10);
+                    }
+                    files.add(file);
+                }
+                final Path sum = dir.resolve("sum.bin");
+                final List<Streaming.Source> fileSources = new ArrayList<>();
+                try (final Streaming.Sink sink = Streaming.Sink.to(sum)) {
+                    for (final Path file : files) {
+                        fileSources.add(Streaming.Source.of(file));
+                    }
+                    Streaming.compWise(fileSources, addOp, sink, 10);
+                } finally {
+                    for (final Streaming.Source source : fileSources) {
+                        source.close();
+                    }
+                }
+                final DoubleStream.Builder result = DoubleStream.builder();
+                try (final Streaming.Source source = Streaming.Source.of(sum)) {
+                    Streaming.compWise(List.of(source), addOp, Streaming.Sink.to(result), 10);
+                }
+                Assert.assertEquals(Solution.vectorCompWise(vectors, addOp), new DenseTensor(result.build().toArray(), dim));
+            }
+            Assert.assertThrows(IllegalArgumentException.class, () -> Streaming.compWise(
+                    sources(List.of(DenseTensor.zeros(32), DenseTensor.zeros(33))), addOp, Streaming.Sink.to(x -> {}), 16
+            ));
+        } finally {
+            try (final Stream<Path> files = Files.walk(dir)) {
+                files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+            }
+        }
+    }
+
+    @Test
+    public void testTensorFile() throws IOException {
+        final IFn load = linearNs.var("load-tensor");
+        final IFn save = linearNs.var("save-tensor");
+        final Path dir = Files.createTempDirectory("linear-tensors");
+        try {
+            for (final int[] shape : List.of(new int[]{}, new int[]{1}, new int[]{7}, new int[]{3, 4}, new int[]{2, 3, 2})) {
+                final Tensor<Double> tensor = Tensor.generate(LinearTest::generateDouble, shape);
+                final Path javaFile = dir.resolve("java.tns");
+                TensorFile.save(javaFile, tensor);
+                Assert.assertEquals(tensor, TensorFile.load(javaFile));
+                Assert.assertEquals(tensor, Tensor.fromClojure(load.invoke(javaFile.toString()), () -> "(load-tensor)"));
+
+                final double[] flat = DenseTensor.of(tensor).flat();
+                final DoubleStream.Builder streamed = DoubleStream.builder();
+                try (final Streaming.Source source = TensorFile.stream(javaFile)) {
+                    Streaming.compWise(List.of(source), addOp, Streaming.Sink.to(streamed), 5);
+                }
+                Assert.assertArrayEquals(flat, streamed.build().toArray(), 0.0);
+                final Path payload = dir.resolve("payload.bin");
+                try (final Streaming.Sink sink = Streaming.Sink.to(payload)) {
+                    sink.write(flat, flat.length);
+                }
+                final byte[] javaBytes = Files.readAllBytes(javaFile);
+                Assert.assertArrayEquals(Arrays.copyOfRange(javaBytes, javaBytes.length - flat.length * Double.BYTES, javaBytes.length), Files.readAllBytes(payload));
+
+                final Path clojureFile = dir.resolve("clojure.tns");
+                save.invoke(clojureFile.toString(), tensor.toClojure().value());
+                Assert.assertArrayEquals(Files.readAllBytes(javaFile), Files.readAllBytes(clojureFile));
+            }
+
+            final Path corrupt = dir.resolve("corrupt.tns");
+            final byte[] valid = Files.readAllBytes(dir.resolve("java.tns"));
+            final byte[] wrongDtype = valid.clone();
+            wrongDtype[4] = 2;
+            for (final byte[] bytes : List.of(new byte[4], new byte[16], wrongDtype, Arrays.copyOf(valid, 12), Arrays.copyOf(valid, valid.length - 1))) {
+                Files.write(corrupt, bytes);
+                Assert.assertThrows(IllegalArgumentException.class, () -> load.invoke(corrupt.toString()));
+            }
+        } finally {
+            try (final Stream<Path> files = Files.walk(dir)) {
+                files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+            }
+        }
+    }
+
+    private static List<Streaming.Source> sources(final List<DenseTensor> vectors) {
+        return vectors.stream().map(v -> Streaming.Source.of(Arrays.stream(v.flat()).iterator())).toList();
+    }
+
+    @Test
+    public void testLarge() {
+        for (final FunctionTester<Double> tester : List.of(vAdd, vSubtract, vMultiply)) {
+            tester.test(Stream.generate(vectorGen(boxed, rng, 70_000)).limit(3).toList());
+        }
+        vDivide.test(Stream.<Tensor<Double>>generate(() -> DenseTensor.generate(rng.nextLong(), LinearTest::generateNonZeroDouble, 70_000)).limit(2).toList());
+        mAdd.test(Stream.generate(matrixGen(dense, rng, 300, 300)).limit(2).toList());
+        mDivide.test(Stream.generate(matrixGenNonZero(boxed, rng, 300, 300)).limit(2).toList());
+    }
+
+    @Test
+    public void testGenerate() {
+        final long seed = rng.nextLong();
+        final DenseTensor tensor = DenseTensor.generate(seed, LinearTest::generateDouble, 300, 1000);
+        Assert.assertEquals(tensor, DenseTensor.generate(seed, LinearTest::generateDouble, 300, 1000));
+        Assert.assertNotEquals(tensor, DenseTensor.generate(seed + 1, LinearTest::generateDouble, 300, 1000));
+        Assert.assertEquals(
+                DenseTensor.generate(seed, LinearTest::generateDouble, 300 * 1000).toVector(),
+                new DenseTensor(tensor.flat(), 300 * 1000)
+        );
+        Assert.assertTrue(Arrays.stream(tensor.flat()).allMatch(x -> -100 <= x && x < 100));
+    }
+
+    @Test
+    public void testTolerance() {
+        Assert.assertTrue(Tolerance.ulps(2).test(1.0, Math.nextUp(Math.nextUp(1.0))));
+        Assert.assertFalse(Tolerance.ulps(2).test(1.0, Math.nextUp(Math.nextUp(Math.nextUp(1.0)))));
+        Assert.assertTrue(Tolerance.ulps(1).test(Double.MIN_VALUE, -0.0));
+        Assert.assertFalse(Tolerance.EXACT.test(0.0, -0.0));
+        Assert.assertTrue(Tolerance.EXACT.test(Double.NaN, Double.NaN));
+        Assert.assertFalse(Tolerance.ulps(Long.MAX_VALUE).test(Double.POSITIVE_INFINITY, Double.MAX_VALUE));
+        Assert.assertFalse(Tolerance.ulps(Long.MAX_VALUE).test(-Double.MAX_VALUE, Double.MAX_VALUE));
+        Assert.assertTrue(Tolerance.relative(1e-9).test(1e6, 1e6 + 1e-4));
+        Assert.assertFalse(Tolerance.relative(1e-9).test(1.0, 1.0001));
+
+        final DenseTensor expected = DenseTensor.generate(rng.nextLong(), LinearTest::generateDouble, 300, 1000);
+        final double[] perturbed = expected.flat().clone();
+        perturbed[123_456] = Math.nextUp(perturbed[123_456]);
+        final DenseTensor actual = new DenseTensor(perturbed, 300, 1000);
+        Assert.assertFalse(Tolerance.EXACT.matches(expected, actual));
+        Assert.assertEquals(123_456, Tolerance.EXACT.mismatch(expected.flat(), perturbed));
+        Assert.assertTrue(Tolerance.ulps(1).matches(expected, actual));
+        Assert.assertFalse(Tolerance.ulps(1).matches(expected, actual.transposed()));
+        Assert.assertEquals(Solution.transpose(List.of(expected)).hashCode(), expected.transposed().hashCode());
+
+        for (final int[] shape : List.of(new int[]{}, new int[]{5}, new int[]{3, 4}, new int[]{2, 3, 4})) {
+            final Tensor<Double> boxedTensor = Tensor.generate(LinearTest::generateDouble, shape);
+            final DenseTensor denseTensor = DenseTensor.of(boxedTensor);
+            Assert.assertEquals(boxedTensor.hashCode(), denseTensor.hashCode());
+            Assert.assertEquals(boxedTensor.hashCode(), denseTensor.toTensor().hashCode());
+            Assert.assertEquals(boxedTensor, denseTensor.toTensor());
+        }
+        Assert.assertEquals(List.of(List.of(), List.of()).hashCode(), DenseTensor.zeros(2, 0, 3).hashCode());
+
+        final Tensor<Double> positive = DenseTensor.generate(rng.nextLong(), RandomGenerator::nextDouble, 40, 5000);
+        final Tensor<Double> weights = DenseTensor.generate(rng.nextLong(), RandomGenerator::nextDouble, 5000);
+        new FunctionTester<Double>(Solution::vectorizedTransposeMultiplyV, mTimesV.actual(), "m*v").test(List.of(positive, weights), Tolerance.relative(1e-12));
+    }
+
+    @Test
+    public void testSummation() {
+        final Var mode = (Var) linearNs.var("*summation*");
+        final double u = Math.ulp(1.0) / 2;
+        for (final int length : new int[]{1, 100, 129, 10_000, 70_000}) {
+            final Random random = new Random(rng.nextLong());
+            final Tensor<Double> values = DenseTensor.generate(() -> (random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(12)), length);
+            final Tensor<Double> ones = DenseTensor.generate(() -> 1.0, length);
+            final Tensor<Double> matrix = DenseTensor.generate(() -> generateDouble(random), 3, length);
+            final double[] xs = DenseTensor.of(values).flat();
+            final double exact = Summation.EXACT.sum(xs);
+            final double magnitude = Arrays.stream(xs).map(Math::abs).sum();
+            Assert.assertEquals(Solution.inner(List.of(values, ones), addOp, multiplyOp).value(), Summation.NAIVE.sum(xs), 0.0);
+            Assert.assertEquals(exact, Solution.inner(List.of(values, ones), Summation.EXACT).value(), 0.0);
+            final Map<Summation, Double> bounds = Map.of(
+                    Summation.NAIVE, (length - 1) * u * magnitude,
+                    Summation.PAIRWISE, (128 + Math.log(length) / Math.log(2)) * u * magnitude,
+                    Summation.KAHAN, 2 * u * Math.abs(exact) + 2 * length * u * u * magnitude,
+                    Summation.CHUNKED, (8192 + length / 8192) * u * magnitude
+            );
+            for (final Map.Entry<Summation, Double> bound : bounds.entrySet()) {
+                final Summation summation = bound.getKey();
+                Assert.assertTrue(summation + " error", Math.abs(summation.sum(xs) - exact) <= bound.getValue() + Double.MIN_VALUE);
+                Var.pushThreadBindings(RT.map(mode, Clojure.read(":" + summation.name().toLowerCase())));
+                try {
+                    new FunctionTester<Double>(lst -> Solution.inner(lst, summation), inner.actual(), "dot " + summation).test(List.of(values, ones));
+                    new FunctionTester<Double>(lst -> Solution.transposeMultiplyV(lst, summation), mTimesV.actual(), "m*v " + summation).test(List.of(matrix, values));
+                } finally {
+                    Var.popThreadBindings();
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testKernels() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent() && Boolean.parseBoolean(System.getProperty("linear.simd", "true"))) {
+            Assert.assertNotSame("jdk.incubator.vector is present, but SIMD kernels were not loaded", DoubleKernels.scalar(), DoubleKernels.get());
+        }
+        for (final DoubleKernels kernels : Stream.of(DoubleKernels.scalar(), DoubleKernels.get()).distinct().toList()) {
+            for (final int dim : new int[]{1, 3, 8, 17, 1000}) {
+                final List<Tensor<Double>> vectors = Stream.generate(vectorGenNonZero(boxed, rng, dim)).limit(2).toList();
+                final double[] a = DenseTensor.of(vectors.get(0)).flat();
+                final double[] b = DenseTensor.of(vectors.get(1)).flat();
+                for (final DoubleOperatorOverload op : List.of(addOp, subtractOp, multiplyOp, divideOp)) {
+                    final double[] acc = a.clone();
+                    Assert.assertTrue(kernels.compWise(op, acc, b));
+                    Assert.assertEquals(kernels + " " + dim, Solution.vectorCompWise(vectors, op.boxed()), new DenseTensor(acc, dim));
+                }
+                final double[] scaled = a.clone();
+                kernels.scale(scaled, 2.5);
+                Assert.assertEquals(Solution.vectorScale(List.of(vectors.get(0), Tensor.generate(() -> 2.5)), multiplyOp.boxed()), new DenseTensor(scaled, dim));
+
+                final double tolerance = dim * Math.ulp(1.0) * IntStream.range(0, dim).mapToDouble(i -> Math.abs(a[i] * b[i])).sum();
+                Assert.assertEquals(Solution.inner(vectors, addOp.boxed(), multiplyOp.boxed()).value(), kernels.dot(a, b), tolerance);
+
+                final Tensor<Double> matrix = matrixGen(boxed, rng, 7, dim).get();
+                final double[] m = DenseTensor.of(matrix).flat();
+                final double[] transposed = new double[m.length];
+                kernels.transpose(m, 7, dim, transposed);
+                Assert.assertEquals(Solution.transpose(List.of(matrix)), new DenseTensor(transposed, dim, 7));
+                final double[] product = new double[7];
+                kernels.multiplyVector(m, 7, dim, a, product);
+                final Vector<Double> expected = Solution.transposeMultiplyV(List.of(matrix, vectors.get(0)), addOp.boxed(), multiplyOp.boxed());
+                for (int i = 0; i < 7; i++) {
+                    final int row = i;
+                    final double rowTolerance = dim * Math.ulp(1.0) * IntStream.range(0, dim).mapToDouble(k -> Math.abs(m[row * dim + k] * a[k])).sum();
+                    Assert.assertEquals(((Scalar<Double>) expected.get(i)).value(), product[i], rowTolerance);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testTranspose() {
+        final IFn transposed = linearNs.var("transposed");
+        for (final int[] shape : List.of(new int[]{1, 1}, new int[]{3, 70}, new int[]{65, 33}, new int[]{600, 450})) {
+            final Tensor<Double> matrix = matrixGen(dense, rng, shape[0], shape[1]).get();
+            transpose.test(List.of(matrix));
+            final Vector<Double> expected = Solution.transpose(List.of(matrix));
+            Assert.assertEquals(expected, DenseTensor.of(matrix).transposed());
+            Assert.assertEquals(expected, Tensor.fromClojure(transposed.invoke(matrix.toClojure().value()), () -> "(transposed)"));
+        }
+        final DenseTensor view = new DenseTensor(IntStream.range(0, 6).mapToDouble(i -> i).toArray(), 2, 3).transposed();
+        Assert.assertArrayEquals(new int[]{3, 2}, view.shape());
+        Assert.assertEquals(5.0, view.get(2, 1), 0.0);
+        Assert.assertEquals(Solution.transpose(List.of(view)), view.transposed());
+    }
+
+    private static DenseTensor sparseGen(final double density, final int... shape) {
+        return DenseTensor.generate(() -> rng.nextDouble() < density ? generateNonZeroDouble(rng) : 0.0, shape);
+    }
+
+    private static void assertDense(final Tensor<?> expected, final Tensor<?> actual) {
+        final DenseTensor lhs = DenseTensor.of(expected);
+        final DenseTensor rhs = DenseTensor.of(actual);
+        Assert.assertArrayEquals(lhs.shape(), rhs.shape());
+        Assert.assertArrayEquals(lhs.flat(), rhs.flat(), 0.0);
+    }
+
+    @Test
+    public void testSparse() {
+        final IFn svAdd = linearNs.var("sv+");
+        final IFn sdot = linearNs.var("sdot");
+        final IFn smTimesV = linearNs.var("sm*v");
+        final IFn smTimesM = linearNs.var("sm*m");
+        final IFn stranspose = linearNs.var("stranspose");
+        final IFn sparseMatrix = linearNs.var("sparse-matrix");
+        final IFn sparseToDense = linearNs.var("sparse->dense");
+        for (final int[] dims : List.of(new int[]{1, 1, 1}, new int[]{7, 5, 3}, new int[]{60, 200, 40})) {
+            final DenseTensor a = sparseGen(0.05, dims[0], dims[1]);
+            final DenseTensor b = sparseGen(0.05, dims[1], dims[2]);
+            final DenseTensor u = sparseGen(0.3, dims[1]);
+            final DenseTensor w = sparseGen(0.3, dims[1]);
+            final DenseTensor x = DenseTensor.generate(LinearTest::generateDouble, dims[1]);
+            final CsrMatrix csr = CsrMatrix.of(a);
+            final CooMatrix coo = CooMatrix.of(a);
+            final SparseVector su = SparseVector.of(u);
+            final SparseVector sw = SparseVector.of(w);
+            assertDense(a, csr);
+            Assert.assertEquals(csr, coo.toCsr());
+            Assert.assertEquals(csr, coo);
+            Assert.assertEquals(csr.hashCode(), coo.hashCode());
+            Assert.assertNotEquals(a, csr);
+            Assert.assertEquals(SparseVector.nonZeros(a.flat(), 0, a.size()), csr.nnz());
+
+            final Vector<Double> sum = Solution.vectorCompWise(List.of(u, w), addOp);
+            final double dot = Solution.inner(List.of(u, w), addOp, multiplyOp).value();
+            final Vector<Double> product = Solution.transposeMultiplyV(List.of(a, x), addOp, multiplyOp);
+            final Vector<Double> composed = Solution.compose(List.of(a, b), addOp, multiplyOp);
+            final Vector<Double> transposed = Solution.transpose(List.of(a));
+            assertDense(sum, su.add(sw));
+            Assert.assertEquals(dot, su.dot(sw), 0.0);
+            assertDense(product, csr.multiply(x));
+            assertDense(product, coo.multiply(x));
+            assertDense(composed, csr.multiply(CsrMatrix.of(b)));
+            assertDense(composed, coo.multiply(CooMatrix.of(b)));
+            assertDense(transposed, csr.transpose());
+            assertDense(transposed, coo.transpose());
+
+            final Object cu = su.toClojure().value();
+            final Object cw = sw.toClojure().value();
+            final Supplier<String> context = () -> "sparse " + Arrays.toString(dims);
+            assertDense(sum, Tensor.fromClojure(svAdd.invoke(cu, cw), context));
+            Assert.assertEquals(dot, ((Number) sdot.invoke(cu, cw)).doubleValue(), 0.0);
+            for (final SparseTensor matrix : List.of(csr, coo)) {
+                final Object cm = matrix.toClojure().value();
+                assertDense(product, Tensor.fromClojure(smTimesV.invoke(cm, x.toClojure().value()), context));
+                assertDense(composed, Tensor.fromClojure(smTimesM.invoke(cm, CsrMatrix.of(b).toClojure().value()), context));
+                assertDense(transposed, Tensor.fromClojure(stranspose.invoke(cm), context));
+                assertDense(a, Tensor.fromClojure(sparseToDense.invoke(cm), context));
+            }
+            Assert.assertEquals(csr, Tensor.fromClojure(sparseMatrix.invoke(a.toClojure().value()), context));
+        }
+
+        final SparseVector unsorted = new SparseVector(6, new int[]{4, 1, 4, 2}, new double[]{1.5, 2.0, 1.0, 0.0});
+        final SparseVector sorted = SparseVector.of(new DenseTensor(new double[]{0.0, 2.0, 0.0, 0.0, 2.5, 0.0}, 6));
+        Assert.assertEquals(sorted, unsorted);
+        Assert.assertEquals(sorted.hashCode(), unsorted.hashCode());
+
+        final IFn sparseVector = linearNs.var("sparse-vector");
+        final Object longs = RT.vector(1L, 0L, 2L);
+        Assert.assertEquals(longs, sparseToDense.invoke(sparseVector.invoke(longs)));
+        final Object longMatrix = RT.vector(RT.vector(0L, 3L), RT.vector(0L, 0L));
+        Assert.assertEquals(longMatrix, sparseToDense.invoke(sparseMatrix.invoke(longMatrix)));
+    }
+
+    @Test
+    public void testMetrics() throws IOException {
+        final boolean enabled = Metrics.enabled();
+        Metrics.setEnabled(true);
+        try {
+            for (int i = 0; i < 20; i++) {
+                mTimesV.test(List.of(matrixGen(dense, rng, 3, 17).get(), vectorGen(boxed, rng, 17).get()));
+            }
+        } finally {
+            Metrics.setEnabled(enabled);
+        }
+        final Map<Metrics.Key, Metrics.Summary> snapshot = Metrics.snapshot();
+        for (final String phase : List.of("expected", "toClojure", "call", "fromClojure")) {
+            final Metrics.Summary summary = snapshot.get(new Metrics.Key("m*v", "3x17 17", phase));
+            Assert.assertNotNull(phase, summary);
+            Assert.assertEquals(20, summary.count());
+            Assert.assertTrue(summary.p50Nanos() <= summary.p99Nanos() && summary.p99Nanos() <= summary.maxNanos());
+        }
+        final Path file = Files.createTempFile("linear-metrics", ".csv");
+        try {
+            Metrics.export(file);
+            final List<String> lines = Files.readAllLines(file);
+            Assert.assertEquals(snapshot.size() + 1, lines.size());
+            Assert.assertTrue(lines.get(0).startsWith("function,shape,phase,count"));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testOperandCache() throws InterruptedException {
+        final OperandCache<int[], Integer> cache = new OperandCache<>(2);
+        final int[] a = {1};
+        final int[] b = {1};
+        final int[] c = {1};
+        Assert.assertEquals(1, (int) cache.get(a, x -> x[0]));
+        Assert.assertEquals(1, (int) cache.get(a, x -> -1));
+        Assert.assertEquals(2, (int) cache.get(b, x -> 2));
+        Assert.assertEquals(3, (int) cache.get(c, x -> 3));
+        Assert.assertEquals(-4, (int) cache.get(a, x -> -4));
+        Assert.assertEquals(new OperandCache.Stats(1, 4, 2, 2), cache.stats());
+        cache.clear();
+        Assert.assertEquals(new OperandCache.Stats(0, 0, 0, 0), cache.stats());
+
+        final Tensor<Double> left = matrixGen(boxed, rng, 4, 5).get();
+        final Tensor<Double> right = matrixGen(boxed, rng, 5, 3).get();
+        final List<DenseTensor> denseOperands = List.of(DenseTensor.of(left), DenseTensor.of(right));
+        final OperandCache.Stats before = Solution.transposeCacheStats();
+        for (int i = 0; i < 3; i++) {
+            Assert.assertEquals(Solution.compose(List.of(left, right), addOp.boxed(), multiplyOp.boxed()), Solution.compose(denseOperands, addOp.boxed(), multiplyOp.boxed()));
+        }
+        final OperandCache.Stats after = Solution.transposeCacheStats();
+        Assert.assertEquals(2, after.misses() - before.misses());
+        Assert.assertEquals(4, after.hits() - before.hits());
+
+        final IFn stats = linearNs.var("transpose-cache-stats");
+        final Keyword hits = Keyword.intern("hits");
+        final Keyword misses = Keyword.intern("misses");
+        final Object m1 = left.toClojure().value();
+        final Object m2 = right.toClojure().value();
+        final Vector<Double> expected = Solution.compose(List.of(left, right), addOp, multiplyOp);
+        final Map<?, ?> start = (Map<?, ?>) stats.invoke();
+        for (int i = 0; i < 3; i++) {
+            Assert.assertEquals(expected, Tensor.fromClojure(ClojureCall.nonNull(mTimesM.actual(), "(m*m)", new Object[]{m1, m2}), () -> "m*m"));
+        }
+        final Map<?, ?> end = (Map<?, ?>) stats.invoke();
+        Assert.assertEquals(1, (Long) end.get(misses) - (Long) start.get(misses));
+        Assert.assertEquals(2, (Long) end.get(hits) - (Long) start.get(hits));
+
+        final Keyword size = Keyword.intern("size");
+        multiplyTemporary();
+        final long cached = (Long) ((Map<?, ?>) stats.invoke()).get(size);
+        for (int attempt = 0; attempt < 50 && (Long) ((Map<?, ?>) stats.invoke()).get(size) >= cached; attempt++) {
+            System.gc();
+            Thread.sleep(20);
+        }
+        Assert.assertTrue((Long) ((Map<?, ?>) stats.invoke()).get(size) < cached);
+    }
+
+    private static void multiplyTemporary() {
+        final Object m = RT.vector(RT.vector(1.0, 2.0), RT.vector(3.0, 4.0));
+        linearNs.var("m*m").invoke(m, m);
+    }
+
+    @Test
+    public void testBatch() {
+        for (final FunctionTester<Double> tester : List.of(vAdd, vMultiply, inner)) {
+            tester.testAll(Stream.generate(() -> Stream.generate(vectorGen(boxed, rng, 3)).limit(2).toList()).limit(2000).toList());
+        }
+        mTimesV.testAll(Stream.generate(() -> List.of(matrixGen(dense, rng, 2, 3).get(), vectorGen(dense, rng, 3).get())).limit(500).toList());
+
+        final Tensor<Double> zero = new Vector<>(new Scalar<>(1.0), new Scalar<>(0.0));
+        final Tensor<Double> one = new Vector<>(new Scalar<>(1.0), new Scalar<>(1.0));
+        final ClojureCall.Batch batch = ClojureCall.batch(linearNs.var("vd"), new Object[][]{
+                {one.toClojure().value(), one.toClojure().value()},
+                {one.toClojure().value(), zero.toClojure().value()},
+                {one.toClojure().value()},
+                {Clojure.read("[1.0]"), one.toClojure().value()},
+        });
+        Assert.assertEquals(List.of(1, 3), List.copyOf(batch.failures().keySet()));
+        Assert.assertTrue(batch.failures().get(1) instanceof ArithmeticException);
+        Assert.assertTrue(batch.failures().get(3) instanceof AssertionError);
+        Assert.assertEquals(one, Tensor.fromClojure(batch.results()[0], () -> "(vd)"));
+        Assert.assertNull(batch.results()[1]);
+    }
+
+    @Test
+    public void testRational() {
+        final IFn apply = clojureCoreNs.var("apply");
+        final IFn mapv = clojureCoreNs.var("mapv");
+        final IFn divide = clojureCoreNs.var("/");
+        final IFn vd = linearNs.var("vd");
+        final IFn md = linearNs.var("md");
+        final long[] edges = {0, 1, -1, 2, -2, 6, Long.MAX_VALUE, Long.MIN_VALUE, Long.MIN_VALUE + 1, 1L << 31, -(1L << 62), 3_037_000_499L};
+        final Random random = new Random(rng.nextLong());
+        for (int count = 1; count <= 6; count++) {
+            for (int attempt = 0; attempt < 200; attempt++) {
+                final List<Object> vecs = new ArrayList<>();
+                for (int k = 0; k < count; k++) {
+                    final Object[] row = new Object[12];
+                    for (int i = 0; i < row.length; i++) {
+                        row[i] = switch (random.nextInt(3)) {
+                            case 0 -> edges[random.nextInt(edges.length)];
+                            case 1 -> random.nextLong(-1_000, 1_000);
+                            default -> random.nextLong();
+                        };
+                    }
+                    vecs.add(RT.vector(row));
+                }
+                final Object expected = rational(() -> apply.invoke(mapv, divide, vecs));
+                final Object actual = rational(() -> apply.invoke(vd, vecs));
+                Assert.assertEquals(vecs.toString(), expected, actual);
+                Assert.assertEquals(vecs.toString(), classes(expected), classes(actual));
+                Assert.assertEquals(vecs.toString(), expected instanceof String ? expected : RT.vector(expected), rational(() -> apply.invoke(md, vecs.stream().map(RT::vector).toList())));
+            }
+        }
+    }
+
+    private static Object rational(final Supplier<Object> call) {
+        try {
+            return call.get();
+        } catch (final ArithmeticException e) {
+            return e.getMessage();
+        }
+    }
+
+    private static Object classes(final Object result) {
+        return result instanceof final List<?> list ? list.stream().map(Object::getClass).toList() : result;
+    }
+
+    @Test
+    public void testBridge() {
+        final IFn equal = clojureCoreNs.var("=");
+        final IFn vec = clojureCoreNs.var("vec");
+        final IFn mapv = clojureCoreNs.var("mapv");
+        final IFn asTransient = clojureCoreNs.var("transient");
+        final IFn conj = clojureCoreNs.var("conj!");
+        final IFn persistent = clojureCoreNs.var("persistent!");
+        final IFn withMeta = clojureCoreNs.var("with-meta");
+        final IFn meta = clojureCoreNs.var("meta");
+        final Object tag = RT.map(Keyword.intern("tag"), true);
+        for (final Generator gen : List.of(boxed, dense)) {
+            for (final int[] shape : List.of(new int[]{1}, new int[]{7}, new int[]{3, 4}, new int[]{2, 3, 2})) {
+                final Tensor<Double> tensor = gen.generate(LinearTest::generateDouble, shape);
+                final Object view = tensor.toClojure().value();
+                Assert.assertTrue(view instanceof TensorVector);
+                Assert.assertSame(tensor, Tensor.fromClojure(view, () -> "view"));
+
+                final Object copy = shape.length == 1 ? vec.invoke(view) : mapv.invoke(vec, view);
+                Assert.assertTrue((Boolean) equal.invoke(view, copy));
+                Assert.assertEquals(tensor, Tensor.fromClojure(copy, () -> "copy"));
+                Assert.assertEquals(tensor.toString(), copy.toString());
+
+                Assert.assertEquals(clojureCoreNs.var("conj").invoke(copy, 1.0), persistent.invoke(conj.invoke(asTransient.invoke(view), 1.0)));
+                final Object tagged = withMeta.invoke(view, tag);
+                Assert.assertEquals(tag, meta.invoke(tagged));
+                Assert.assertTrue((Boolean) equal.invoke(view, tagged));
+                if (shape.length > 1) {
+                    final TensorVector rows = (TensorVector) view;
+                    Assert.assertSame(rows.nth(1), rows.nth(1));
+                    if (shape.length == 2) {
+                        Assert.assertEquals(true, linearNs.var("numeric-vector?").invoke(rows.nth(1)));
+                        Assert.assertEquals(true, linearNs.var("validated?").invoke(rows.nth(1)));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testValidation() {
+        final IFn vPlus = linearNs.var("v+");
+        final IFn numeric = linearNs.var("numeric-vector?");
+        final IFn validated = linearNs.var("validated?");
+        final IFn slot = linearNs.var("validated-slot");
+
+        final Object valid = RT.vector(1.0, 2.0, 3.0);
+        Assert.assertEquals(false, validated.invoke(valid));
+        Assert.assertEquals(true, numeric.invoke(valid));
+        Assert.assertEquals(true, validated.invoke(valid));
+        Assert.assertEquals(RT.vector(2.0, 4.0, 6.0), vPlus.invoke(valid, valid));
+        Assert.assertEquals(true, numeric.invoke(valid));
+
+        Object invalid;
+        do {
+            invalid = RT.vector(1.0, Keyword.intern("x"), 3.0);
+        } while (!slot.invoke(invalid).equals(slot.invoke(valid)));
+        final Object colliding = invalid;
+        Assert.assertEquals(false, numeric.invoke(colliding));
+        Assert.assertEquals(true, validated.invoke(valid));
+        Assert.assertThrows(AssertionError.class, () -> vPlus.invoke(colliding, valid));
+
+        Object other;
+        do {
+            other = RT.vector(4.0, 5.0, 6.0);
+        } while (!slot.invoke(other).equals(slot.invoke(valid)));
+        Assert.assertEquals(true, numeric.invoke(other));
+        Assert.assertEquals(false, validated.invoke(valid));
+        Assert.assertEquals(true, numeric.invoke(valid));
+
+        final Object shorter = RT.vector(1L, 2L);
+        final Object longer = RT.vector(1L, 2L, 3L);
+        Assert.assertThrows(AssertionError.class, () -> vPlus.invoke(shorter, longer));
+        Var.pushThreadBindings(RT.map(linearNs.var("*validate*"), false));
+        try {
+            final Object unchecked = RT.vector(1L, 2L);
+            Assert.assertEquals(RT.vector(2L, 4L), vPlus.invoke(unchecked, longer));
+            Assert.assertEquals(false, validated.invoke(unchecked));
+        } finally {
+            Var.popThreadBindings();
+        }
+    }
+
     @Test
     public void testInvalid() {
         for (final FunctionTester<Double> tester : List.of(vAdd, vSubtract, vMultiply, vDivide, inner)) {
@@ -0,0 +1,24 @@
+package linear;
+
+import java.util.function.LongBinaryOperator;
+import java.util.function.LongUnaryOperator;
+
+public record LongOperatorOverload(LongUnaryOperator unary, LongBinaryOperator binary) {
+    public static final LongOperatorOverload ADD = new LongOperatorOverload(a -> a, Long::sum);
+    public static final LongOperatorOverload SUBTRACT = new LongOperatorOverload(a -> -a, (a, b) -> a - b);
+    public static final LongOperatorOverload MULTIPLY = new LongOperatorOverload(a -> a, (a, b) -> a * b);
+
+    public static LongOperatorOverload of(final OperatorOverload<Long> oper) {
+        return new LongOperatorOverload(
+                oper.unary() == null ? null : a -> oper.unary().apply(a),
+                oper.binary() == null ? null : (a, b) -> oper.binary().apply(a, b)
+        );
+    }
+
+    public OperatorOverload<Long> boxed() {
+        return new OperatorOverload<>(
+                unary == null ? null : unary::applyAsLong,
+                binary == null ? null : binary::applyAsLong
+        );
+    }
+}
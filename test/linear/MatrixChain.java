@@ -0,0 +1,98 @@
+package linear;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.BinaryOperator;
+
+public final class MatrixChain {
+    private final int[] dims;
+    private final long[][] cost;
+    private final int[][] split;
+
+    private MatrixChain(final int[] dims) {
+        this.dims = dims;
+        final int n = dims.length - 1;
+        this.cost = new long[n][n];
+        this.split = new int[n][n];
+        for (int len = 2; len <= n; len++) {
+            for (int i = 0; i + len <= n; i++) {
+                final int j = i + len - 1;
+                long best = Long.MAX_VALUE;
+                for (int k = i; k < j; k++) {
+                    final long candidate = cost[i][k] + cost[k + 1][j] + (long) dims[i] * dims[k + 1] * dims[j + 1];
+                    if (candidate < best) {
+                        best = candidate;
+                        split[i][j] = k;
+                    }
+                }
+                cost[i][j] = best;
+            }
+        }
+    }
+
+    public static MatrixChain plan(final int... dims) {
+        if (dims.length < 2) {
+            throw new IllegalArgumentException("Chain needs at least one matrix, found dims " + Arrays.toString(dims));
+        }
+        return new MatrixChain(dims.clone());
+    }
+
+    public static MatrixChain plan(final List<int[]> shapes) {
+        final int[] dims = new int[shapes.size() + 1];
+        for (int i = 0; i < shapes.size(); i++) {
+            final int[] shape = shapes.get(i);
+            if (shape.length != 2) {
+                throw new IllegalArgumentException("Expected matrix shape, found " + Arrays.toString(shape));
+            }
+            if (i > 0 && dims[i] != shape[0]) {
+                throw new IllegalArgumentException("Cannot chain " + Arrays.toString(shapes.get(i - 1)) + " with " + Arrays.toString(shape));
+            }
+            dims[i] = shape[0];
+            dims[i + 1] = shape[1];
+        }
+        return plan(dims);
+    }
+
+    public int size() {
+        return dims.length - 1;
+    }
+
+    public long flops() {
+        return 2 * cost[0][size() - 1];
+    }
+
+    public long leftToRightFlops() {
+        long total = 0;
+        for (int k = 1; k < size(); k++) {
+            total += 2L * dims[0] * dims[k] * dims[k + 1];
+        }
+        return total;
+    }
+
+    public <M> M multiply(final List<? extends M> operands, final BinaryOperator<M> multiply) {
+        if (operands.size() != size()) {
+            throw new IllegalArgumentException("Plan is for " + size() + " operands, found " + operands.size());
+        }
+        return multiply(operands, multiply, 0, size() - 1);
+    }
+
+    private <M> M multiply(final List<? extends M> operands, final BinaryOperator<M> multiply, final int i, final int j) {
+        if (i == j) {
+            return operands.get(i);
+        }
+        final int k = split[i][j];
+        return multiply.apply(multiply(operands, multiply, i, k), multiply(operands, multiply, k + 1, j));
+    }
+
+    private String order(final int i, final int j) {
+        if (i == j) {
+            return Integer.toString(i);
+        }
+        return "(" + order(i, split[i][j]) + " " + order(split[i][j] + 1, j) + ")";
+    }
+
+    @Override
+    public String toString() {
+        return order(0, size() - 1) + " ~" + flops() + " flops";
+    }
+}
@@ -0,0 +1,100 @@
+package linear;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+public final class OperandCache<K, V> {
+    private final int capacity;
+    private final ReferenceQueue<K> cleared = new ReferenceQueue<>();
+    private final LinkedHashMap<Key<K>, V> entries;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public record Stats(long hits, long misses, long evictions, int size) {
+    }
+
+    public OperandCache(final int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive, found " + capacity);
+        }
+        this.capacity = capacity;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Key<K>, V> eldest) {
+                if (size() > OperandCache.this.capacity) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public V get(final K operand, final Function<? super K, ? extends V> compute) {
+        final Key<K> key = new Key<>(operand, cleared);
+        synchronized (this) {
+            purge();
+            final V cached = entries.get(key);
+            if (cached != null) {
+                hits++;
+                return cached;
+            }
+            misses++;
+        }
+        final V value = compute.apply(operand);
+        synchronized (this) {
+            entries.putIfAbsent(key, value);
+        }
+        return value;
+    }
+
+    public synchronized Stats stats() {
+        purge();
+        return new Stats(hits, misses, evictions, entries.size());
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        hits = 0;
+        misses = 0;
+        evictions = 0;
+    }
+
+    private void purge() {
+        for (Reference<? extends K> ref = cleared.poll(); ref != null; ref = cleared.poll()) {
+            entries.remove(ref);
+        }
+    }
+
+    private static final class Key<K> extends WeakReference<K> {
+        private final int hash;
+
+        private Key(final K referent, final ReferenceQueue<K> queue) {
+            super(referent, queue);
+            this.hash = System.identityHashCode(referent);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        // A cleared key still equals itself, so purge() can remove it.
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof final Key<?> other)) {
+                return false;
+            }
+            final K referent = get();
+            return referent != null && referent == other.get();
+        }
+    }
+}
@@ -17,7 +17,7 @@ public final class Scalar<T extends Number> implements Tensor<T> {
 
     @Override
     public Annotated<Object> toClojure() {
-        return new Annotated<>(value, value.toString());
+        return new Annotated<>(value, value::toString);
     }
 
     @Override
@@ -28,6 +28,9 @@ public final class Scalar<T extends Number> implements Tensor<T> {
         if (o instanceof final Scalar<?> scalar) {
             return Objects.equals(value, scalar.value);
         }
+        if (o instanceof final DenseTensor dense) {
+            return dense.rank() == 0 && equals(dense.toTensor());
+        }
         return false;
     }
 
@@ -0,0 +1,67 @@
+package linear;
+
+public enum ScalarKernels implements DoubleKernels {
+    INSTANCE;
+
+    @Override
+    public void add(final double[] acc, final double[] operand) {
+        for (int i = 0; i < acc.length; i++) {
+            acc[i] += operand[i];
+        }
+    }
+
+    @Override
+    public void subtract(final double[] acc, final double[] operand) {
+        for (int i = 0; i < acc.length; i++) {
+            acc[i] -= operand[i];
+        }
+    }
+
+    @Override
+    public void multiply(final double[] acc, final double[] operand) {
+        for (int i = 0; i < acc.length; i++) {
+            acc[i] *= operand[i];
+        }
+    }
+
+    @Override
+    public void divide(final double[] acc, final double[] operand) {
+        for (int i = 0; i < acc.length; i++) {
+            acc[i] /= operand[i];
+        }
+    }
+
+    @Override
+    public void scale(final double[] acc, final double factor) {
+        for (int i = 0; i < acc.length; i++) {
+            acc[i] *= factor;
+        }
+    }
+
+    @Override
+    public double dot(final double[] lhs, final int lhsFrom, final double[] rhs, final int rhsFrom, final int length) {
+        if (length == 0) {
+            return 0.0;
+        }
+        double acc = lhs[lhsFrom] * rhs[rhsFrom];
+        for (int i = 1; i < length; i++) {
+            acc += lhs[lhsFrom + i] * rhs[rhsFrom + i];
+        }
+        return acc;
+    }
+
+    @Override
+    public void transpose(final double[] matrix, final int rows, final int cols, final double[] result, final int rowFrom, final int rowTo) {
+        for (int i0 = rowFrom; i0 < rowTo; i0 += TRANSPOSE_TILE) {
+            final int i1 = Math.min(i0 + TRANSPOSE_TILE, rowTo);
+            for (int j0 = 0; j0 < cols; j0 += TRANSPOSE_TILE) {
+                final int j1 = Math.min(j0 + TRANSPOSE_TILE, cols);
+                for (int i = i0; i < i1; i++) {
+                    for (int j = j0; j < j1; j++) {
+                        result[j * rows + i] = matrix[i * cols + j];
+                    }
+                }
+            }
+        }
+    }
+}
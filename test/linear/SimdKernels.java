@@ -0,0 +1,86 @@
+package linear;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+final class SimdKernels implements DoubleKernels {
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    SimdKernels() {
+    }
+
+    private static void lanewise(final VectorOperators.Binary op, final double[] acc, final double[] operand) {
+        for (int i = 0; i < acc.length; i += SPECIES.length()) {
+            final VectorMask<Double> mask = SPECIES.indexInRange(i, acc.length);
+            DoubleVector.fromArray(SPECIES, acc, i, mask)
+                    .lanewise(op, DoubleVector.fromArray(SPECIES, operand, i, mask))
+                    .intoArray(acc, i, mask);
+        }
+    }
+
+    @Override
+    public void add(final double[] acc, final double[] operand) {
+        lanewise(VectorOperators.ADD, acc, operand);
+    }
+
+    @Override
+    public void subtract(final double[] acc, final double[] operand) {
+        lanewise(VectorOperators.SUB, acc, operand);
+    }
+
+    @Override
+    public void multiply(final double[] acc, final double[] operand) {
+        lanewise(VectorOperators.MUL, acc, operand);
+    }
+
+    @Override
+    public void divide(final double[] acc, final double[] operand) {
+        lanewise(VectorOperators.DIV, acc, operand);
+    }
+
+    @Override
+    public void scale(final double[] acc, final double factor) {
+        for (int i = 0; i < acc.length; i += SPECIES.length()) {
+            final VectorMask<Double> mask = SPECIES.indexInRange(i, acc.length);
+            DoubleVector.fromArray(SPECIES, acc, i, mask).mul(factor).intoArray(acc, i, mask);
+        }
+    }
+
+    @Override
+    public double dot(final double[] lhs, final int lhsFrom, final double[] rhs, final int rhsFrom, final int length) {
+        final int bound = SPECIES.loopBound(length);
+        DoubleVector acc = DoubleVector.zero(SPECIES);
+        int i = 0;
+        for (; i < bound; i += SPECIES.length()) {
+            acc = DoubleVector.fromArray(SPECIES, lhs, lhsFrom + i).mul(DoubleVector.fromArray(SPECIES, rhs, rhsFrom + i)).add(acc);
+        }
+        double sum = acc.reduceLanes(VectorOperators.ADD);
+        for (; i < length; i++) {
+            sum += lhs[lhsFrom + i] * rhs[rhsFrom + i];
+        }
+        return sum;
+    }
+
+    @Override
+    public void transpose(final double[] matrix, final int rows, final int cols, final double[] result, final int rowFrom, final int rowTo) {
+        final int[] index = new int[SPECIES.length()];
+        for (int k = 0; k < index.length; k++) {
+            index[k] = k * cols;
+        }
+        for (int i0 = rowFrom; i0 < rowTo; i0 += TRANSPOSE_TILE) {
+            final int i1 = Math.min(i0 + TRANSPOSE_TILE, rowTo);
+            final int bound = i0 + SPECIES.loopBound(i1 - i0);
+            for (int j = 0; j < cols; j++) {
+                int i = i0;
+                for (; i < bound; i += SPECIES.length()) {
+                    DoubleVector.fromArray(SPECIES, matrix, i * cols + j, index, 0).intoArray(result, j * rows + i);
+                }
+                for (; i < i1; i++) {
+                    result[j * rows + i] = matrix[i * cols + j];
+                }
+            }
+        }
+    }
+}
@@ -2,13 +2,127 @@ package linear;
 
 import java.util.List;
 import java.util.stream.IntStream;
+import java.util.stream.LongStream;
 
 public final class Solution {
+    private static final DoubleKernels KERNELS = DoubleKernels.get();
+    private static final long PARALLEL_TRANSPOSE = 1L << 18;
+    private static final OperandCache<DenseTensor, DenseTensor> DENSE_TRANSPOSED = new OperandCache<>(16);
+    private static final OperandCache<Vector<?>, Vector<?>> TRANSPOSED = new OperandCache<>(16);
+
     private Solution() {
     }
 
+    @SuppressWarnings("unchecked")
+    private static <T extends Number> Vector<T> vector(final Tensor<T> tensor) {
+        if (tensor instanceof final DenseTensor dense) {
+            return (Vector<T>) dense.toVector();
+        }
+        if (tensor instanceof final SparseTensor sparse) {
+            return (Vector<T>) sparse.toDense().toVector();
+        }
+        return (Vector<T>) tensor;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T extends Number> Scalar<T> scalar(final Tensor<T> tensor) {
+        if (tensor instanceof final DenseTensor dense) {
+            return (Scalar<T>) dense.toTensor();
+        }
+        return (Scalar<T>) tensor;
+    }
+
+    private static boolean allDense(final List<? extends Tensor<?>> tensors) {
+        return tensors.stream().allMatch(DenseTensor.class::isInstance);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T extends Number> Vector<T> dense(final DenseTensor tensor) {
+        return (Vector<T>) tensor.toVector();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T extends Number> OperatorOverload<Double> doubleOp(final OperatorOverload<T> oper) {
+        return (OperatorOverload<Double>) oper;
+    }
+
+    private static double[] compWise(final List<double[]> operands, final DoubleOperatorOverload oper) {
+        final double[] first = operands.getFirst();
+        final double[] result = new double[first.length];
+        if (operands.size() == 1) {
+            for (int i = 0; i < result.length; i++) {
+                result[i] = oper.unary().applyAsDouble(first[i]);
+            }
+        } else {
+            System.arraycopy(first, 0, result, 0, result.length);
+            for (final double[] data : operands.subList(1, operands.size())) {
+                if (!KERNELS.compWise(oper, result, data)) {
+                    for (int i = 0; i < result.length; i++) {
+                        result[i] = oper.binary().applyAsDouble(result[i], data[i]);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    private static long[] compWise(final List<long[]> operands, final LongOperatorOverload oper) {
+        final long[] first = operands.getFirst();
+        final long[] result = new long[first.length];
+        if (operands.size() == 1) {
+            for (int i = 0; i < result.length; i++) {
+                result[i] = oper.unary().applyAsLong(first[i]);
+            }
+        } else {
+            System.arraycopy(first, 0, result, 0, result.length);
+            for (final long[] data : operands.subList(1, operands.size())) {
+                for (int i = 0; i < result.length; i++) {
+                    result[i] = oper.binary().applyAsLong(result[i], data[i]);
+                }
+            }
+        }
+        return result;
+    }
+
+    private static DenseTensor denseCompWise(final List<? extends Tensor<?>> tensors, final DoubleOperatorOverload oper) {
+        final List<DenseTensor> operands = tensors.stream().<DenseTensor>map(DenseTensor::of).toList();
+        return new DenseTensor(compWise(operands.stream().map(DenseTensor::flat).toList(), oper), operands.getFirst().shape());
+    }
+
+    private static void flatten(final Tensor<Long> tensor, final LongStream.Builder builder) {
+        if (tensor instanceof final Scalar<Long> scalar) {
+            builder.add(scalar.value());
+        } else {
+            for (final Tensor<Long> element : ((Vector<Long>) tensor).data()) {
+                flatten(element, builder);
+            }
+        }
+    }
+
+    private static long[] flatLongs(final Tensor<Long> tensor) {
+        final LongStream.Builder builder = LongStream.builder();
+        flatten(tensor, builder);
+        return builder.build().toArray();
+    }
+
+    private static Tensor<Long> unflatten(final long[] data, final int[] shape, final int axis, final int offset, final int stride) {
+        if (axis == shape.length) {
+            return new Scalar<>(data[offset]);
+        }
+        final int nextStride = stride / shape[axis];
+        return new Vector<>(IntStream.range(0, shape[axis])
+                .mapToObj(i -> unflatten(data, shape, axis + 1, offset + i * nextStride, nextStride))
+                .toList());
+    }
+
+    private static Vector<Long> longCompWise(final List<? extends Tensor<Long>> tensors, final LongOperatorOverload oper) {
+        final int[] shape = DenseTensor.shapeOf(tensors.getFirst());
+        final long[] result = compWise(tensors.stream().map(Solution::flatLongs).toList(), oper);
+        return (Vector<Long>) unflatten(result, shape, 0, 0, result.length);
+    }
+
     private static <T extends Number> Vector<T> compWise(final List<? extends Tensor<T>> tensors, final OperatorOverload<Tensor<T>> oper) {
-        final Vector<T> first = (Vector<T>) tensors.getFirst();
+        final Vector<T> first = vector(tensors.getFirst());
         if (tensors.size() == 1) {
             return new Vector<>(IntStream.range(0, first.size())
                     .mapToObj(i -> oper.unary().apply(first.get(i)))
@@ -17,7 +131,7 @@ public final class Solution {
             return new Vector<>(IntStream.range(0, first.size())
                     .mapToObj(i ->
                             tensors.stream()
-                                    .map(t -> (Vector<T>) t)
+                                    .map(Solution::vector)
                                     .map(v -> v.get(i))
                                     .reduce(oper.binary())
                                     .get()
@@ -27,16 +141,22 @@ public final class Solution {
     }
 
     public static <T extends Number> Vector<T> vectorCompWise(final List<? extends Tensor<T>> tensors, final OperatorOverload<T> oper) {
+        if (allDense(tensors)) {
+            return dense(denseCompWise(tensors, DoubleOperatorOverload.of(doubleOp(oper))));
+        }
         return compWise(
                 tensors,
                 new OperatorOverload<>(
-                        t -> new Scalar<>(oper.unary().apply(((Scalar<T>) t).value())),
-                        (t1, t2) -> new Scalar<>(oper.binary().apply(((Scalar<T>) t1).value(), ((Scalar<T>) t2).value()))
+                        t -> new Scalar<>(oper.unary().apply(scalar(t).value())),
+                        (t1, t2) -> new Scalar<>(oper.binary().apply(scalar(t1).value(), scalar(t2).value()))
                 )
         );
     }
 
     public static <T extends Number> Vector<T> matrixCompWise(final List<? extends Tensor<T>> tensors, final OperatorOverload<T> oper) {
+        if (allDense(tensors)) {
+            return dense(denseCompWise(tensors, DoubleOperatorOverload.of(doubleOp(oper))));
+        }
         return compWise(
                 tensors,
                 new OperatorOverload<>(
@@ -46,40 +166,147 @@ public final class Solution {
         );
     }
 
+    public static Vector<Double> vectorCompWise(final List<? extends Tensor<Double>> tensors, final DoubleOperatorOverload oper) {
+        return denseCompWise(tensors, oper).toVector();
+    }
+
+    public static Vector<Double> matrixCompWise(final List<? extends Tensor<Double>> tensors, final DoubleOperatorOverload oper) {
+        return denseCompWise(tensors, oper).toVector();
+    }
+
+    public static Vector<Long> vectorCompWise(final List<? extends Tensor<Long>> tensors, final LongOperatorOverload oper) {
+        return longCompWise(tensors, oper);
+    }
+
+    public static Vector<Long> matrixCompWise(final List<? extends Tensor<Long>> tensors, final LongOperatorOverload oper) {
+        return longCompWise(tensors, oper);
+    }
+
     public static <T extends Number> Scalar<T> inner(final List<? extends Tensor<T>> tensors, final OperatorOverload<T> add, final OperatorOverload<T> mul) {
         final Vector<T> in = vectorCompWise(tensors, mul);
         if (in.size() == 1) {
-            return new Scalar<>(add.unary().apply(((Scalar<T>) in.get(0)).value()));
+            return new Scalar<>(add.unary().apply(scalar(in.get(0)).value()));
         } else {
-            return new Scalar<>(in.data().stream().map(t -> (Scalar<T>) t).map(Scalar::value).reduce(add.binary()).get());
+            return new Scalar<>(in.data().stream().map(Solution::scalar).map(Scalar::value).reduce(add.binary()).get());
         }
     }
 
+    public static Scalar<Double> inner(final List<? extends Tensor<Double>> tensors, final DoubleOperatorOverload add, final DoubleOperatorOverload mul) {
+        final double[] in = compWise(tensors.stream().map(DenseTensor::of).map(DenseTensor::flat).toList(), mul);
+        if (in.length == 1) {
+            return new Scalar<>(add.unary().applyAsDouble(in[0]));
+        }
+        double acc = in[0];
+        for (int i = 1; i < in.length; i++) {
+            acc = add.binary().applyAsDouble(acc, in[i]);
+        }
+        return new Scalar<>(acc);
+    }
+
+    public static Scalar<Double> inner(final List<? extends Tensor<Double>> tensors, final Summation summation) {
+        final double[] in = compWise(tensors.stream().map(DenseTensor::of).map(DenseTensor::flat).toList(), DoubleOperatorOverload.MULTIPLY);
+        return new Scalar<>(summation.sum(in));
+    }
+
+    public static Scalar<Double> vectorizedInner(final List<? extends Tensor<Double>> tensors) {
+        if (tensors.size() != 2) {
+            return inner(tensors, DoubleOperatorOverload.ADD, DoubleOperatorOverload.MULTIPLY);
+        }
+        return new Scalar<>(KERNELS.dot(DenseTensor.of(tensors.get(0)).flat(), DenseTensor.of(tensors.get(1)).flat()));
+    }
+
+    public static Scalar<Long> inner(final List<? extends Tensor<Long>> tensors, final LongOperatorOverload add, final LongOperatorOverload mul) {
+        final long[] in = compWise(tensors.stream().map(Solution::flatLongs).toList(), mul);
+        if (in.length == 1) {
+            return new Scalar<>(add.unary().applyAsLong(in[0]));
+        }
+        long acc = in[0];
+        for (int i = 1; i < in.length; i++) {
+            acc = add.binary().applyAsLong(acc, in[i]);
+        }
+        return new Scalar<>(acc);
+    }
+
     public static <T extends Number> Vector<T> vectorScale(final List<? extends Tensor<T>> tensors, final OperatorOverload<T> oper) {
-        final Vector<T> first = (Vector<T>) tensors.getFirst();
+        final Vector<T> first = vector(tensors.getFirst());
         if (tensors.size() == 1) {
             return first;
         }
-        final T scaler = tensors.subList(1, tensors.size()).stream().map(t -> (Scalar<T>) t).map(Scalar::value).reduce(oper.binary()).get();
-        return vectorCompWise(List.of(first), new OperatorOverload<>(t -> oper.binary().apply(t, scaler), null));
+        final T scaler = tensors.subList(1, tensors.size()).stream().map(Solution::scalar).map(Scalar::value).reduce(oper.binary()).get();
+        return vectorCompWise(List.of(tensors.getFirst()), new OperatorOverload<>(t -> oper.binary().apply(t, scaler), null));
     }
 
     public static <T extends Number> Vector<T> matrixScale(final List<? extends Tensor<T>> tensors, final OperatorOverload<T> oper) {
-        final Vector<T> first = (Vector<T>) tensors.getFirst();
+        final Vector<T> first = vector(tensors.getFirst());
         if (tensors.size() == 1) {
             return first;
         }
-        final T scaler = tensors.subList(1, tensors.size()).stream().map(t -> (Scalar<T>) t).map(Scalar::value).reduce(oper.binary()).get();
-        return matrixCompWise(List.of(first), new OperatorOverload<>(t -> oper.binary().apply(t, scaler), null));
+        final T scaler = tensors.subList(1, tensors.size()).stream().map(Solution::scalar).map(Scalar::value).reduce(oper.binary()).get();
+        return matrixCompWise(List.of(tensors.getFirst()), new OperatorOverload<>(t -> oper.binary().apply(t, scaler), null));
+    }
+
+    private static DenseTensor denseScale(final List<? extends Tensor<Double>> tensors, final DoubleOperatorOverload oper) {
+        double scaler = scalar(tensors.get(1)).value();
+        for (final Tensor<Double> tensor : tensors.subList(2, tensors.size())) {
+            scaler = oper.binary().applyAsDouble(scaler, scalar(tensor).value());
+        }
+        final double factor = scaler;
+        if (oper == DoubleOperatorOverload.MULTIPLY) {
+            final DenseTensor first = DenseTensor.of(tensors.getFirst());
+            final double[] result = first.flat().clone();
+            KERNELS.scale(result, factor);
+            return new DenseTensor(result, first.shape());
+        }
+        return denseCompWise(List.of(tensors.getFirst()), new DoubleOperatorOverload(t -> oper.binary().applyAsDouble(t, factor), null));
+    }
+
+    private static Vector<Long> longScale(final List<? extends Tensor<Long>> tensors, final LongOperatorOverload oper) {
+        long scaler = scalar(tensors.get(1)).value();
+        for (final Tensor<Long> tensor : tensors.subList(2, tensors.size())) {
+            scaler = oper.binary().applyAsLong(scaler, scalar(tensor).value());
+        }
+        final long factor = scaler;
+        return longCompWise(List.of(tensors.getFirst()), new LongOperatorOverload(t -> oper.binary().applyAsLong(t, factor), null));
+    }
+
+    public static Vector<Double> vectorScale(final List<? extends Tensor<Double>> tensors, final DoubleOperatorOverload oper) {
+        return tensors.size() == 1 ? vector(tensors.getFirst()) : denseScale(tensors, oper).toVector();
+    }
+
+    public static Vector<Double> matrixScale(final List<? extends Tensor<Double>> tensors, final DoubleOperatorOverload oper) {
+        return tensors.size() == 1 ? vector(tensors.getFirst()) : denseScale(tensors, oper).toVector();
+    }
+
+    public static Vector<Long> vectorScale(final List<? extends Tensor<Long>> tensors, final LongOperatorOverload oper) {
+        return tensors.size() == 1 ? vector(tensors.getFirst()) : longScale(tensors, oper);
+    }
+
+    public static Vector<Long> matrixScale(final List<? extends Tensor<Long>> tensors, final LongOperatorOverload oper) {
+        return tensors.size() == 1 ? vector(tensors.getFirst()) : longScale(tensors, oper);
+    }
+
+    private static DenseTensor transposeImpl(final DenseTensor matrix) {
+        final int rows = matrix.dim(0);
+        final int cols = matrix.dim(1);
+        final double[] data = matrix.flat();
+        final double[] result = new double[data.length];
+        if ((long) rows * cols < PARALLEL_TRANSPOSE) {
+            KERNELS.transpose(data, rows, cols, result);
+        } else {
+            final int tile = DoubleKernels.TRANSPOSE_TILE;
+            IntStream.range(0, (rows + tile - 1) / tile).parallel()
+                    .forEach(t -> KERNELS.transpose(data, rows, cols, result, t * tile, Math.min(rows, (t + 1) * tile)));
+        }
+        return new DenseTensor(result, cols, rows);
     }
 
     private static <T extends Number> Vector<T> transposeImpl(final Vector<T> matrix) {
-        final int resSize = ((Vector<T>) matrix.get(0)).size();
+        final int resSize = vector(matrix.get(0)).size();
         return new Vector<>(
                 IntStream.range(0, resSize)
                         .mapToObj(i -> new Vector<>(matrix.data()
                                 .stream()
-                                .map(t -> (Vector<T>) t)
+                                .map(Solution::vector)
                                 .map(v -> v.get(i))
                                 .toList()))
                         .toList()
@@ -87,27 +314,130 @@ public final class Solution {
     }
 
     public static <T extends Number> Vector<T> transpose(final List<? extends Tensor<T>> tensors) {
-        return transposeImpl((Vector<T>) tensors.getFirst());
+        if (tensors.getFirst() instanceof final DenseTensor matrix) {
+            return dense(transposeImpl(matrix));
+        }
+        return transposeImpl(vector(tensors.getFirst()));
     }
 
     private static <T extends Number> Scalar<T> dotImpl(final Tensor<T> lhs, final Tensor<T> rhs, final OperatorOverload<T> add, final OperatorOverload<T> mul) {
-        return new Scalar<>(vectorCompWise(List.of(lhs, rhs), mul).data().stream().map(t -> (Scalar<T>) t).map(Scalar::value).reduce(add.binary()).get());
+        return new Scalar<>(vectorCompWise(List.of(lhs, rhs), mul).data().stream().map(Solution::scalar).map(Scalar::value).reduce(add.binary()).get());
     }
 
     public static <T extends Number> Vector<T> transposeMultiplyV(final List<? extends Tensor<T>> tensors, final OperatorOverload<T> add, final OperatorOverload<T> mul) {
-        final Vector<T> firstT = (Vector<T>) tensors.get(0);
-        final Vector<T> second = (Vector<T>) tensors.get(1);
+        final Vector<T> firstT = vector(tensors.get(0));
+        final Tensor<T> second = tensors.get(1);
         return new Vector<>(firstT.data().stream().map(t -> dotImpl(t, second, add, mul)).toList());
     }
 
+    public static Vector<Double> transposeMultiplyV(final List<? extends Tensor<Double>> tensors, final DoubleOperatorOverload add, final DoubleOperatorOverload mul) {
+        final DenseTensor matrix = DenseTensor.of(tensors.get(0));
+        final double[] m = matrix.flat();
+        final double[] v = DenseTensor.of(tensors.get(1)).flat();
+        final int rows = matrix.dim(0);
+        final int cols = matrix.dim(1);
+        final double[] result = new double[rows];
+        for (int i = 0; i < rows; i++) {
+            double acc = mul.binary().applyAsDouble(m[i * cols], v[0]);
+            for (int k = 1; k < cols; k++) {
+                acc = add.binary().applyAsDouble(acc, mul.binary().applyAsDouble(m[i * cols + k], v[k]));
+            }
+            result[i] = acc;
+        }
+        return new DenseTensor(result, rows).toVector();
+    }
+
+    public static Vector<Double> transposeMultiplyV(final List<? extends Tensor<Double>> tensors, final Summation summation) {
+        final DenseTensor matrix = DenseTensor.of(tensors.get(0));
+        final double[] m = matrix.flat();
+        final double[] v = DenseTensor.of(tensors.get(1)).flat();
+        final int rows = matrix.dim(0);
+        final int cols = matrix.dim(1);
+        final double[] products = new double[cols];
+        final double[] result = new double[rows];
+        for (int i = 0; i < rows; i++) {
+            for (int k = 0; k < cols; k++) {
+                products[k] = m[i * cols + k] * v[k];
+            }
+            result[i] = summation.sum(products);
+        }
+        return new DenseTensor(result, rows).toVector();
+    }
+
+    public static Vector<Double> vectorizedTransposeMultiplyV(final List<? extends Tensor<Double>> tensors) {
+        final DenseTensor matrix = DenseTensor.of(tensors.get(0));
+        final double[] result = new double[matrix.dim(0)];
+        KERNELS.multiplyVector(matrix.flat(), matrix.dim(0), matrix.dim(1), DenseTensor.of(tensors.get(1)).flat(), result);
+        return new DenseTensor(result, result.length).toVector();
+    }
+
+    private static DenseTensor transposeMultiplyM(final DenseTensor first, final DenseTensor second, final DoubleOperatorOverload add, final DoubleOperatorOverload mul) {
+        final int rows = first.dim(0);
+        final int inner = first.dim(1);
+        final int cols = second.dim(1);
+        final double[] lhs = first.flat();
+        final double[] rhsT = DENSE_TRANSPOSED.get(second, Solution::transposeImpl).flat();
+        final double[] result = new double[rows * cols];
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                double acc = mul.binary().applyAsDouble(lhs[i * inner], rhsT[j * inner]);
+                for (int k = 1; k < inner; k++) {
+                    acc = add.binary().applyAsDouble(acc, mul.binary().applyAsDouble(lhs[i * inner + k], rhsT[j * inner + k]));
+                }
+                result[i * cols + j] = acc;
+            }
+        }
+        return new DenseTensor(result, rows, cols);
+    }
+
     private static <T extends Number> Vector<T> transposeMultiplyM(final Vector<T> first, final Vector<T> second, final OperatorOverload<T> add, final OperatorOverload<T> mul) {
-        final Vector<T> secondT = transposeImpl(second);
+        @SuppressWarnings("unchecked")
+        final Vector<T> secondT = (Vector<T>) TRANSPOSED.get(second, t -> transposeImpl((Vector<T>) t));
         return new Vector<>(first.data().stream()
                 .map(t1 -> new Vector<>(secondT.data().stream().map(t2 -> dotImpl(t1, t2, add, mul)).toList()))
                 .toList());
     }
 
+    public static OperandCache.Stats transposeCacheStats() {
+        final OperandCache.Stats dense = DENSE_TRANSPOSED.stats();
+        final OperandCache.Stats boxed = TRANSPOSED.stats();
+        return new OperandCache.Stats(dense.hits() + boxed.hits(), dense.misses() + boxed.misses(), dense.evictions() + boxed.evictions(), dense.size() + boxed.size());
+    }
+
+    private static int[] matrixShape(final Tensor<?> tensor) {
+        if (tensor instanceof final DenseTensor dense) {
+            return dense.shape();
+        }
+        final Vector<?> matrix = (Vector<?>) tensor;
+        return new int[]{matrix.size(), ((Vector<?>) matrix.get(0)).size()};
+    }
+
+    public static MatrixChain composePlan(final List<? extends Tensor<?>> tensors) {
+        return MatrixChain.plan(tensors.stream().map(Solution::matrixShape).toList());
+    }
+
     public static <T extends Number> Vector<T> compose(final List<? extends Tensor<T>> tensors, final OperatorOverload<T> add, final OperatorOverload<T> mul) {
-        return tensors.stream().map(t -> (Vector<T>) t).reduce((t1, t2) -> transposeMultiplyM(t1, t2, add, mul)).get();
+        if (tensors.size() == 1) {
+            return vector(tensors.getFirst());
+        }
+        final MatrixChain plan = composePlan(tensors);
+        if (allDense(tensors)) {
+            return dense(plan.<DenseTensor>multiply(
+                    tensors.stream().map(t -> (DenseTensor) t).toList(),
+                    (t1, t2) -> transposeMultiplyM(t1, t2, DoubleOperatorOverload.of(doubleOp(add)), DoubleOperatorOverload.of(doubleOp(mul)))
+            ));
+        }
+        return plan.multiply(tensors.stream().map(Solution::vector).toList(), (t1, t2) -> transposeMultiplyM(t1, t2, add, mul));
+    }
+
+    public static Vector<Double> compose(final List<? extends Tensor<Double>> tensors, final DoubleOperatorOverload add, final DoubleOperatorOverload mul) {
+        if (tensors.size() == 1) {
+            return vector(tensors.getFirst());
+        }
+        final List<DenseTensor> operands = tensors.stream().map(DenseTensor::of).toList();
+        if (add == DoubleOperatorOverload.ADD && mul == DoubleOperatorOverload.MULTIPLY) {
+            return composePlan(tensors).multiply(operands, Gemm::multiply).toVector();
+        }
+        return composePlan(tensors).multiply(operands, (t1, t2) -> transposeMultiplyM(t1, t2, add, mul)).toVector();
     }
 }
@@ -0,0 +1,75 @@
+package linear;
+
+import clojure.lang.IPersistentMap;
+import clojure.lang.Indexed;
+import clojure.lang.Keyword;
+import clojure.lang.RT;
+import org.junit.Assert;
+
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+public sealed interface SparseTensor extends Tensor<Double> permits CooMatrix, CsrMatrix, SparseVector {
+    Keyword SHAPE = Keyword.intern("shape");
+    Keyword ROW_PTR = Keyword.intern("row-ptr");
+    Keyword ROWS = Keyword.intern("rows");
+    Keyword INDICES = Keyword.intern("indices");
+    Keyword VALUES = Keyword.intern("values");
+
+    int[] shape();
+
+    int nnz();
+
+    DenseTensor toDense();
+
+    static SparseTensor fromClojure(final IPersistentMap map, final Supplier<String> context) {
+        final int[] shape = ints(map.valAt(SHAPE), context);
+        final int[] indices = ints(map.valAt(INDICES), context);
+        final double[] values = doubles(map.valAt(VALUES), context);
+        if (shape.length == 1) {
+            return new SparseVector(shape[0], indices, values);
+        }
+        if (shape.length == 2 && map.containsKey(ROW_PTR)) {
+            return new CsrMatrix(shape[0], shape[1], ints(map.valAt(ROW_PTR), context), indices, values);
+        }
+        if (shape.length == 2 && map.containsKey(ROWS)) {
+            return new CooMatrix(shape[0], shape[1], ints(map.valAt(ROWS), context), indices, values);
+        }
+        Assert.fail("Returned map " + map + " [expected sparse vector, CSR or COO matrix] from " + context.get());
+        return null;
+    }
+
+    private static int[] ints(final Object o, final Supplier<String> context) {
+        final Indexed vector = indexed(o, context);
+        final int[] result = new int[vector.count()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = ((Number) vector.nth(i)).intValue();
+        }
+        return result;
+    }
+
+    private static double[] doubles(final Object o, final Supplier<String> context) {
+        final Indexed vector = indexed(o, context);
+        final double[] result = new double[vector.count()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = ((Number) vector.nth(i)).doubleValue();
+        }
+        return result;
+    }
+
+    private static Indexed indexed(final Object o, final Supplier<String> context) {
+        if (!(o instanceof final Indexed vector)) {
+            Assert.fail("Returned sparse field " + o + " [expected vector] from " + context.get());
+            return null;
+        }
+        return vector;
+    }
+
+    static Object toClojure(final int[] values) {
+        return RT.vector(Arrays.stream(values).asLongStream().boxed().toArray());
+    }
+
+    static Object toClojure(final double[] values) {
+        return RT.vector(Arrays.stream(values).boxed().toArray());
+    }
+}
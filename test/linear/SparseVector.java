@@ -0,0 +1,184 @@
+package linear;
+
+import base.Annotated;
+import clojure.lang.RT;
+
+import java.util.Arrays;
+
+public final class SparseVector implements SparseTensor {
+    private final int size;
+    private final int[] indices;
+    private final double[] values;
+
+    SparseVector(final int size, final int[] indices, final double[] values) {
+        if (indices.length != values.length) {
+            throw new IllegalArgumentException("Expected " + indices.length + " values, found " + values.length);
+        }
+        this.size = size;
+        this.indices = indices;
+        this.values = values;
+    }
+
+    public static SparseVector of(final Tensor<? extends Number> tensor) {
+        if (tensor instanceof final SparseVector sparse) {
+            return sparse;
+        }
+        final DenseTensor dense = DenseTensor.of(tensor);
+        if (dense.rank() != 1) {
+            throw new IllegalArgumentException("Expected vector, found shape " + Arrays.toString(dense.shape()));
+        }
+        final double[] data = dense.flat();
+        final int nnz = nonZeros(data, 0, data.length);
+        final int[] indices = new int[nnz];
+        final double[] values = new double[nnz];
+        compress(data, 0, data.length, indices, values, 0);
+        return new SparseVector(data.length, indices, values);
+    }
+
+    static int nonZeros(final double[] data, final int from, final int to) {
+        int nnz = 0;
+        for (int i = from; i < to; i++) {
+            if (data[i] != 0) {
+                nnz++;
+            }
+        }
+        return nnz;
+    }
+
+    static int compress(final double[] data, final int from, final int to, final int[] indices, final double[] values, final int pos) {
+        int next = pos;
+        for (int i = from; i < to; i++) {
+            if (data[i] != 0) {
+                indices[next] = i - from;
+                values[next++] = data[i];
+            }
+        }
+        return next;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int[] shape() {
+        return new int[]{size};
+    }
+
+    @Override
+    public int nnz() {
+        return indices.length;
+    }
+
+    public double get(final int i) {
+        if (i < 0 || i >= size) {
+            throw new IndexOutOfBoundsException(i);
+        }
+        final int pos = Arrays.binarySearch(indices, i);
+        return pos < 0 ? 0.0 : values[pos];
+    }
+
+    private void checkSize(final SparseVector other) {
+        if (size != other.size) {
+            throw new IllegalArgumentException("Vector sizes differ: " + size + " and " + other.size);
+        }
+    }
+
+    public SparseVector add(final SparseVector other) {
+        checkSize(other);
+        final int[] resultIndices = new int[indices.length + other.indices.length];
+        final double[] resultValues = new double[resultIndices.length];
+        int n = 0;
+        int p = 0;
+        int q = 0;
+        while (p < indices.length || q < other.indices.length) {
+            final int i = p < indices.length ? indices[p] : Integer.MAX_VALUE;
+            final int j = q < other.indices.length ? other.indices[q] : Integer.MAX_VALUE;
+            final double value;
+            if (i < j) {
+                value = values[p++];
+            } else if (i > j) {
+                value = other.values[q++];
+            } else {
+                value = values[p++] + other.values[q++];
+            }
+            if (value != 0) {
+                resultIndices[n] = Math.min(i, j);
+                resultValues[n++] = value;
+            }
+        }
+        return new SparseVector(size, Arrays.copyOf(resultIndices, n), Arrays.copyOf(resultValues, n));
+    }
+
+    public double dot(final SparseVector other) {
+        checkSize(other);
+        double acc = 0.0;
+        int p = 0;
+        int q = 0;
+        while (p < indices.length && q < other.indices.length) {
+            if (indices[p] < other.indices[q]) {
+                p++;
+            } else if (indices[p] > other.indices[q]) {
+                q++;
+            } else {
+                acc += values[p++] * other.values[q++];
+            }
+        }
+        return acc;
+    }
+
+    @Override
+    public DenseTensor toDense() {
+        final double[] data = new double[size];
+        for (int k = 0; k < indices.length; k++) {
+            data[indices[k]] = values[k];
+        }
+        return new DenseTensor(data, size);
+    }
+
+    @Override
+    public Annotated<Object> toClojure() {
+        return new Annotated<>(
+                RT.map(SHAPE, SparseTensor.toClojure(shape()), INDICES, SparseTensor.toClojure(indices), VALUES, SparseTensor.toClojure(values)),
+                this::toString
+        );
+    }
+
+    private boolean isCanonical() {
+        for (int k = 0; k < indices.length; k++) {
+            if (values[k] == 0 || k > 0 && indices[k] <= indices[k - 1]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Sorted indices without duplicates or stored zeros; equals and hashCode compare this form.
+    SparseVector canonical() {
+        return isCanonical() ? this : new CooMatrix(1, size, new int[indices.length], indices, values).toCsr().canonical().row(0);
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof final SparseVector other) || size != other.size) {
+            return false;
+        }
+        final SparseVector lhs = canonical();
+        final SparseVector rhs = other.canonical();
+        return Arrays.equals(lhs.indices, rhs.indices) && Arrays.equals(lhs.values, rhs.values);
+    }
+
+    @Override
+    public int hashCode() {
+        final SparseVector c = canonical();
+        return (31 * size + Arrays.hashCode(c.indices)) * 31 + Arrays.hashCode(c.values);
+    }
+
+    @Override
+    public String toString() {
+        return toDense().toString();
+    }
+}
@@ -0,0 +1,196 @@
+package linear;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.PrimitiveIterator;
+import java.util.function.DoubleConsumer;
+
+public final class Streaming {
+    public static final int DEFAULT_CHUNK = 1 << 16;
+
+    private Streaming() {
+    }
+
+    public interface Source extends Closeable {
+        int read(double[] buffer) throws IOException;
+
+        @Override
+        default void close() throws IOException {
+        }
+
+        static Source of(final PrimitiveIterator.OfDouble iterator) {
+            return buffer -> {
+                int n = 0;
+                while (n < buffer.length && iterator.hasNext()) {
+                    buffer[n++] = iterator.nextDouble();
+                }
+                return n;
+            };
+        }
+
+        static Source of(final Path path) throws IOException {
+            return of(path, 0);
+        }
+
+        static Source of(final Path path, final long offset) throws IOException {
+            return new FileSource(FileChannel.open(path, StandardOpenOption.READ).position(offset));
+        }
+    }
+
+    public interface Sink extends Closeable {
+        void write(double[] buffer, int length) throws IOException;
+
+        @Override
+        default void close() throws IOException {
+        }
+
+        static Sink to(final DoubleConsumer consumer) {
+            return (buffer, length) -> {
+                for (int i = 0; i < length; i++) {
+                    consumer.accept(buffer[i]);
+                }
+            };
+        }
+
+        static Sink to(final Path path) throws IOException {
+            return new FileSink(FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE));
+        }
+    }
+
+    public static long compWise(final List<? extends Source> sources, final DoubleOperatorOverload oper, final Sink sink) throws IOException {
+        return compWise(sources, oper, sink, DEFAULT_CHUNK);
+    }
+
+    public static long compWise(final List<? extends Source> sources, final DoubleOperatorOverload oper, final Sink sink, final int chunk) throws IOException {
+        final double[] result = new double[chunk];
+        final double[] buffer = new double[chunk];
+        long total = 0;
+        while (true) {
+            final int n = readChunk(sources, oper, result, buffer, total);
+            if (n > 0) {
+                sink.write(result, n);
+            }
+            total += n;
+            if (n < chunk) {
+                return total;
+            }
+        }
+    }
+
+    public static double inner(final List<? extends Source> sources, final DoubleOperatorOverload add, final DoubleOperatorOverload mul) throws IOException {
+        return inner(sources, add, mul, DEFAULT_CHUNK);
+    }
+
+    public static double inner(final List<? extends Source> sources, final DoubleOperatorOverload add, final DoubleOperatorOverload mul, final int chunk) throws IOException {
+        final double[] products = new double[chunk];
+        final double[] buffer = new double[chunk];
+        long total = 0;
+        double acc = 0;
+        while (true) {
+            final int n = readChunk(sources, mul, products, buffer, total);
+            int i = 0;
+            if (total == 0 && n > 0) {
+                acc = products[i++];
+            }
+            for (; i < n; i++) {
+                acc = add.binary().applyAsDouble(acc, products[i]);
+            }
+            total += n;
+            if (n < chunk) {
+                break;
+            }
+        }
+        if (total == 0) {
+            throw new IllegalArgumentException("Cannot take inner product of empty vectors");
+        }
+        return total == 1 ? add.unary().applyAsDouble(acc) : acc;
+    }
+
+    private static int readChunk(final List<? extends Source> sources, final DoubleOperatorOverload oper, final double[] result, final double[] buffer, final long position) throws IOException {
+        final int n = sources.getFirst().read(result);
+        if (sources.size() == 1) {
+            for (int i = 0; i < n; i++) {
+                result[i] = oper.unary().applyAsDouble(result[i]);
+            }
+            return n;
+        }
+        for (final Source source : sources.subList(1, sources.size())) {
+            final int m = source.read(buffer);
+            if (m != n) {
+                throw new IllegalArgumentException("Operand sizes differ after element " + (position + Math.min(n, m)));
+            }
+            for (int i = 0; i < n; i++) {
+                result[i] = oper.binary().applyAsDouble(result[i], buffer[i]);
+            }
+        }
+        return n;
+    }
+
+    private static final class FileSource implements Source {
+        private final FileChannel channel;
+        private ByteBuffer bytes = ByteBuffer.allocate(0);
+
+        private FileSource(final FileChannel channel) {
+            this.channel = channel;
+        }
+
+        @Override
+        public int read(final double[] buffer) throws IOException {
+            if (bytes.capacity() != buffer.length * Double.BYTES) {
+                bytes = ByteBuffer.allocateDirect(buffer.length * Double.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            }
+            bytes.clear();
+            int read;
+            do {
+                read = channel.read(bytes);
+            } while (read >= 0 && bytes.hasRemaining());
+            bytes.flip();
+            if (bytes.remaining() % Double.BYTES != 0) {
+                throw new IOException("Truncated double at byte " + (channel.position() - bytes.remaining() % Double.BYTES));
+            }
+            final DoubleBuffer doubles = bytes.asDoubleBuffer();
+            final int n = doubles.remaining();
+            doubles.get(buffer, 0, n);
+            return n;
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    private static final class FileSink implements Sink {
+        private final FileChannel channel;
+        private ByteBuffer bytes = ByteBuffer.allocate(0);
+
+        private FileSink(final FileChannel channel) {
+            this.channel = channel;
+        }
+
+        @Override
+        public void write(final double[] buffer, final int length) throws IOException {
+            if (bytes.capacity() < length * Double.BYTES) {
+                bytes = ByteBuffer.allocateDirect(buffer.length * Double.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            }
+            bytes.clear();
+            bytes.asDoubleBuffer().put(buffer, 0, length);
+            bytes.limit(length * Double.BYTES);
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package linear;
+
+import java.math.BigDecimal;
+
+public enum Summation {
+    NAIVE {
+        @Override
+        public double sum(final double[] values, final int from, final int to) {
+            if (from == to) {
+                return 0.0;
+            }
+            double acc = values[from];
+            for (int i = from + 1; i < to; i++) {
+                acc += values[i];
+            }
+            return acc;
+        }
+    },
+    PAIRWISE {
+        @Override
+        public double sum(final double[] values, final int from, final int to) {
+            if (to - from <= BLOCK) {
+                return NAIVE.sum(values, from, to);
+            }
+            final int mid = from + ((to - from) / 2 + BLOCK - 1) / BLOCK * BLOCK;
+            return sum(values, from, mid) + sum(values, mid, to);
+        }
+    },
+    KAHAN {
+        @Override
+        public double sum(final double[] values, final int from, final int to) {
+            if (from == to) {
+                return 0.0;
+            }
+            double acc = values[from];
+            double compensation = 0.0;
+            for (int i = from + 1; i < to; i++) {
+                final double value = values[i];
+                final double next = acc + value;
+                compensation += Math.abs(acc) >= Math.abs(value) ? (acc - next) + value : (value - next) + acc;
+                acc = next;
+            }
+            return acc + compensation;
+        }
+    },
+    CHUNKED {
+        @Override
+        public double sum(final double[] values, final int from, final int to) {
+            final double[] partials = new double[(to - from + CHUNK - 1) / CHUNK];
+            for (int k = 0; k < partials.length; k++) {
+                partials[k] = NAIVE.sum(values, from + k * CHUNK, Math.min(to, from + (k + 1) * CHUNK));
+            }
+            return NAIVE.sum(partials);
+        }
+    },
+    EXACT {
+        @Override
+        public double sum(final double[] values, final int from, final int to) {
+            if (from == to) {
+                return 0.0;
+            }
+            BigDecimal acc = BigDecimal.ZERO;
+            for (int i = from; i < to; i++) {
+                if (!Double.isFinite(values[i])) {
+                    return NAIVE.sum(values, from, to);
+                }
+                acc = acc.add(new BigDecimal(values[i]));
+            }
+            return acc.doubleValue();
+        }
+    };
+
+    private static final int BLOCK = 128;
+    private static final int CHUNK = 8192;
+
+    public abstract double sum(double[] values, int from, int to);
+
+    public double sum(final double[] values) {
+        return sum(values, 0, values.length);
+    }
+}
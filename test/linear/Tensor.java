@@ -1,8 +1,8 @@
 package linear;
 
 import base.Annotated;
+import clojure.lang.IPersistentMap;
 import clojure.lang.IPersistentVector;
-import clojure.lang.PersistentVector;
 import org.junit.Assert;
 
 import java.util.Arrays;
@@ -11,20 +11,24 @@ import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
-public sealed interface Tensor<T extends Number> permits Scalar, Vector {
+public sealed interface Tensor<T extends Number> permits DenseTensor, Scalar, SparseTensor, Vector {
     Annotated<Object> toClojure();
 
-    static Tensor<?> fromClojure(final Object o, final String context) {
+    static Tensor<?> fromClojure(final Object o, final Supplier<String> context) {
         if (o instanceof final Number num) {
             return new Scalar<>(num);
+        } else if (o instanceof final TensorVector view) {
+            return view.tensor();
         } else if (o instanceof final IPersistentVector vector) {
-            return new Vector<>(IntStream.range(0, vector.length()).mapToObj(vector::nth).map(t -> fromClojure(t, context)).toList());
+            return new Vector<>(new ClojureList<>(vector, context));
+        } else if (o instanceof final IPersistentMap map) {
+            return SparseTensor.fromClojure(map, context);
         }
 
         if (o == null) {
-            Assert.fail("Returned null object from " + context);
+            Assert.fail("Returned null object from " + context.get());
         } else {
-            Assert.fail("Returned object of type " + o.getClass().getCanonicalName() + " [expected number or vector] from " + context);
+            Assert.fail("Returned object of type " + o.getClass().getCanonicalName() + " [expected number, vector or sparse map] from " + context.get());
         }
         return null;
     }
@@ -0,0 +1,152 @@
+package linear;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+public final class TensorFile {
+    private static final int MAGIC = 0x534E4554;
+    private static final byte FLOAT64 = 1;
+    private static final int SEGMENT_SHIFT = 27;
+    private static final long SEGMENT_DOUBLES = 1L << SEGMENT_SHIFT;
+
+    private final DoubleBuffer[] segments;
+    private final int[] shape;
+
+    private TensorFile(final DoubleBuffer[] segments, final int[] shape) {
+        this.segments = segments;
+        this.shape = shape;
+    }
+
+    private static long headerSize(final int rank) {
+        return 8 + 8L * rank;
+    }
+
+    private static long elements(final int[] shape) {
+        long size = 1;
+        for (final int dim : shape) {
+            size = Math.multiplyExact(size, dim);
+        }
+        return size;
+    }
+
+    private static DoubleBuffer[] map(final FileChannel channel, final FileChannel.MapMode mode, final long start, final long size) throws IOException {
+        final DoubleBuffer[] segments = new DoubleBuffer[(int) ((size + SEGMENT_DOUBLES - 1) >>> SEGMENT_SHIFT)];
+        for (int s = 0; s < segments.length; s++) {
+            final long from = (long) s << SEGMENT_SHIFT;
+            final long length = Math.min(SEGMENT_DOUBLES, size - from);
+            final MappedByteBuffer bytes = channel.map(mode, start + from * Double.BYTES, length * Double.BYTES);
+            segments[s] = bytes.order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+        }
+        return segments;
+    }
+
+    public static Tensor<Double> load(final Path path) throws IOException {
+        try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final int[] shape = readShape(channel, path);
+            final long size = elements(shape);
+            if (channel.size() != headerSize(shape.length) + size * Double.BYTES) {
+                throw new IOException("Expected " + size + " doubles for shape " + Arrays.toString(shape) + " in " + path);
+            }
+            return new TensorFile(map(channel, FileChannel.MapMode.READ_ONLY, headerSize(shape.length), size), shape).tensor(0, 0);
+        }
+    }
+
+    public static Streaming.Source stream(final Path path) throws IOException {
+        final int rank;
+        try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            rank = readShape(channel, path).length;
+        }
+        return Streaming.Source.of(path, headerSize(rank));
+    }
+
+    private static int[] readShape(final FileChannel channel, final Path path) throws IOException {
+        final ByteBuffer prefix = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+        readFully(channel, prefix, 0, path);
+        if (prefix.getInt(0) != MAGIC) {
+            throw new IOException("Not a tensor file: " + path);
+        }
+        if (prefix.get(4) != FLOAT64) {
+            throw new IOException("Unsupported dtype " + prefix.get(4) + " in " + path);
+        }
+        final int rank = Byte.toUnsignedInt(prefix.get(5));
+        final ByteBuffer dims = ByteBuffer.allocate(8 * rank).order(ByteOrder.LITTLE_ENDIAN);
+        readFully(channel, dims, 8, path);
+        final int[] shape = new int[rank];
+        for (int axis = 0; axis < rank; axis++) {
+            shape[axis] = Math.toIntExact(dims.getLong(8 * axis));
+        }
+        return shape;
+    }
+
+    private static void readFully(final FileChannel channel, final ByteBuffer buffer, final long position, final Path path) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Truncated tensor header in " + path);
+            }
+        }
+    }
+
+    public static void save(final Path path, final Tensor<? extends Number> tensor) throws IOException {
+        final DenseTensor dense = DenseTensor.of(tensor);
+        final int[] shape = dense.shape();
+        final ByteBuffer header = ByteBuffer.allocate((int) headerSize(shape.length)).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC).put(FLOAT64).put((byte) shape.length).putShort((short) 0);
+        for (final int dim : shape) {
+            header.putLong(dim);
+        }
+        header.flip();
+        try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+            final double[] data = dense.flat();
+            int pos = 0;
+            for (final DoubleBuffer segment : map(channel, FileChannel.MapMode.READ_WRITE, headerSize(shape.length), data.length)) {
+                segment.put(data, pos, segment.remaining());
+                pos += segment.capacity();
+            }
+        }
+    }
+
+    private double get(final long index) {
+        return segments[(int) (index >>> SEGMENT_SHIFT)].get((int) (index & (SEGMENT_DOUBLES - 1)));
+    }
+
+    private Tensor<Double> tensor(final int axis, final long offset) {
+        return axis == shape.length ? new Scalar<>(get(offset)) : new Vector<>(new View(axis, offset));
+    }
+
+    private final class View extends AbstractList<Tensor<Double>> implements RandomAccess {
+        private final int axis;
+        private final long offset;
+        private final long stride;
+
+        private View(final int axis, final long offset) {
+            this.axis = axis;
+            this.offset = offset;
+            this.stride = elements(Arrays.copyOfRange(shape, axis + 1, shape.length));
+        }
+
+        @Override
+        public Tensor<Double> get(final int i) {
+            if (i < 0 || i >= shape[axis]) {
+                throw new IndexOutOfBoundsException(i);
+            }
+            return tensor(axis + 1, offset + i * stride);
+        }
+
+        @Override
+        public int size() {
+            return shape[axis];
+        }
+    }
+}
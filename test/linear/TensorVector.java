@@ -0,0 +1,118 @@
+package linear;
+
+import clojure.lang.APersistentVector;
+import clojure.lang.IEditableCollection;
+import clojure.lang.IObj;
+import clojure.lang.IPersistentMap;
+import clojure.lang.IPersistentStack;
+import clojure.lang.IPersistentVector;
+import clojure.lang.ITransientCollection;
+import clojure.lang.PersistentVector;
+
+// Read-only view; updates, transients and metadata go through a PersistentVector copy.
+public final class TensorVector extends APersistentVector implements IEditableCollection, IObj {
+    private static final long serialVersionUID = 1L;
+
+    @SuppressWarnings("serial")
+    private final Tensor<?> tensor;
+    // Built once so that nested rows keep their identity for the identity-keyed memos.
+    private transient volatile Object[] items;
+
+    public TensorVector(final Tensor<?> tensor) {
+        if (tensor instanceof Scalar<?> || tensor instanceof final DenseTensor dense && dense.rank() == 0) {
+            throw new IllegalArgumentException("Scalar tensor cannot be viewed as vector: " + tensor);
+        }
+        this.tensor = tensor;
+    }
+
+    public Tensor<?> tensor() {
+        return tensor;
+    }
+
+    static Object toClojure(final Tensor<?> tensor) {
+        if (tensor instanceof final Scalar<?> scalar) {
+            return scalar.value();
+        }
+        if (tensor instanceof final DenseTensor dense && dense.rank() == 0) {
+            return dense.get();
+        }
+        return new TensorVector(tensor);
+    }
+
+    @Override
+    public int count() {
+        if (tensor instanceof final DenseTensor dense) {
+            return dense.dim(0);
+        }
+        return ((Vector<?>) tensor).size();
+    }
+
+    @Override
+    public Object nth(final int i) {
+        if (i < 0 || i >= count()) {
+            throw new IndexOutOfBoundsException(i);
+        }
+        if (tensor instanceof final DenseTensor dense && dense.rank() == 1) {
+            return dense.get(i);
+        }
+        return items()[i];
+    }
+
+    private Object[] items() {
+        Object[] result = items;
+        if (result == null) {
+            synchronized (this) {
+                result = items;
+                if (result == null) {
+                    result = new Object[count()];
+                    for (int i = 0; i < result.length; i++) {
+                        result[i] = tensor instanceof final DenseTensor dense
+                                ? new TensorVector(dense.slice(i))
+                                : toClojure(((Vector<?>) tensor).get(i));
+                    }
+                    items = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    private PersistentVector copy() {
+        return PersistentVector.create((java.util.List<?>) this);
+    }
+
+    @Override
+    public IPersistentVector cons(final Object o) {
+        return copy().cons(o);
+    }
+
+    @Override
+    public IPersistentVector assocN(final int i, final Object val) {
+        return copy().assocN(i, val);
+    }
+
+    @Override
+    public IPersistentStack pop() {
+        return copy().pop();
+    }
+
+    @Override
+    public IPersistentVector empty() {
+        return PersistentVector.EMPTY;
+    }
+
+    @Override
+    public ITransientCollection asTransient() {
+        return copy().asTransient();
+    }
+
+    @Override
+    public IPersistentMap meta() {
+        return null;
+    }
+
+    @Override
+    public IObj withMeta(final IPersistentMap meta) {
+        return copy().withMeta(meta);
+    }
+}
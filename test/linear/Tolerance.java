@@ -0,0 +1,75 @@
+package linear;
+
+import org.junit.Assert;
+
+import java.util.Arrays;
+
+public record Tolerance(long ulps, double relative) {
+    public static final Tolerance EXACT = new Tolerance(0, 0);
+
+    public Tolerance {
+        if (ulps < 0 || !(relative >= 0)) {
+            throw new IllegalArgumentException("Invalid tolerance: " + ulps + " ulps, relative " + relative);
+        }
+    }
+
+    public static Tolerance ulps(final long ulps) {
+        return new Tolerance(ulps, 0);
+    }
+
+    public static Tolerance relative(final double relative) {
+        return new Tolerance(0, relative);
+    }
+
+    private static long ordered(final double value) {
+        final long bits = Double.doubleToRawLongBits(value);
+        return bits < 0 ? Long.MIN_VALUE - bits : bits;
+    }
+
+    public boolean test(final double expected, final double actual) {
+        if (Double.doubleToLongBits(expected) == Double.doubleToLongBits(actual)) {
+            return true;
+        }
+        if (ulps == 0 && relative == 0 || !Double.isFinite(expected) || !Double.isFinite(actual)) {
+            return false;
+        }
+        if (Math.abs(expected - actual) <= relative * Math.max(Math.abs(expected), Math.abs(actual))) {
+            return true;
+        }
+        final long lhs = ordered(expected);
+        final long rhs = ordered(actual);
+        final long distance = lhs - rhs;
+        final boolean overflow = ((lhs ^ rhs) & (lhs ^ distance)) < 0;
+        return !overflow && Math.abs(distance) <= ulps;
+    }
+
+    public int mismatch(final double[] expected, final double[] actual) {
+        final int length = Math.min(expected.length, actual.length);
+        for (int i = 0; i < length; i++) {
+            if (!test(expected[i], actual[i])) {
+                return i;
+            }
+        }
+        return expected.length == actual.length ? -1 : length;
+    }
+
+    public boolean matches(final Tensor<?> expected, final Tensor<?> actual) {
+        final DenseTensor lhs = DenseTensor.of(expected);
+        final DenseTensor rhs = DenseTensor.of(actual);
+        return Arrays.equals(lhs.shape(), rhs.shape()) && mismatch(lhs.flat(), rhs.flat()) < 0;
+    }
+
+    public void assertMatches(final String message, final Tensor<?> expected, final Tensor<?> actual) {
+        final DenseTensor lhs = DenseTensor.of(expected);
+        final DenseTensor rhs = DenseTensor.of(actual);
+        if (!Arrays.equals(lhs.shape(), rhs.shape())) {
+            Assert.fail(message + ": expected shape " + Arrays.toString(lhs.shape()) + ", found " + Arrays.toString(rhs.shape()));
+        }
+        final double[] expectedValues = lhs.flat();
+        final double[] actualValues = rhs.flat();
+        final int index = mismatch(expectedValues, actualValues);
+        if (index >= 0) {
+            Assert.fail(message + ": element " + index + " expected " + expectedValues[index] + ", found " + actualValues[index] + " (" + this + ")");
+        }
+    }
+}
@@ -1,7 +1,6 @@
 package linear;
 
 import base.Annotated;
-import clojure.lang.PersistentVector;
 
 import java.util.Arrays;
 import java.util.Collections;
@@ -11,6 +10,7 @@ import java.util.stream.Collectors;
 
 public final class Vector<T extends Number> implements Tensor<T> {
     private final List<? extends Tensor<T>> data;
+    private int hash;
 
     @SafeVarargs
     public Vector(final Tensor<T>... data) {
@@ -35,11 +35,7 @@ public final class Vector<T extends Number> implements Tensor<T> {
 
     @Override
     public Annotated<Object> toClojure() {
-        final List<Annotated<Object>> annotatedData = data.stream().map(Tensor::toClojure).toList();
-        return new Annotated<>(
-                PersistentVector.create(annotatedData.stream().map(Annotated::value).toList()),
-                annotatedData.stream().map(Annotated::context).collect(Collectors.joining(" ", "[", "]"))
-        );
+        return new Annotated<>(new TensorVector(this), this::toString);
     }
 
     @Override
@@ -48,14 +44,31 @@ public final class Vector<T extends Number> implements Tensor<T> {
             return true;
         }
         if (o instanceof final Vector<?> vector) {
+            final DenseTensor lhs = DenseTensor.viewed(data);
+            final DenseTensor rhs = DenseTensor.viewed(vector.data);
+            if (lhs != null && rhs != null) {
+                return lhs.equals(rhs);
+            }
+            if (hash != 0 && vector.hash != 0 && hash != vector.hash) {
+                return false;
+            }
             return Objects.equals(data, vector.data);
         }
+        if (o instanceof final DenseTensor dense) {
+            return dense.rank() > 0 && equals(dense.toVector());
+        }
         return false;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hashCode(data);
+        int h = hash;
+        if (h == 0) {
+            final DenseTensor dense = DenseTensor.viewed(data);
+            h = dense != null ? dense.hashCode() : Objects.hashCode(data);
+            hash = h;
+        }
+        return h;
     }
 
     @Override